@@ -0,0 +1,75 @@
+package me.thosea.flowpool.benchmark;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.pushable.PoolList;
+import me.thosea.flowpool.pushable.PoolToggle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HandlerPool#close()} after pushing {@code stacks} pushables.
+ * Pushing is part of the measurement, as every close needs a fresh set of pushes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerPoolCloseBenchmark {
+	@Param({"1", "3", "10", "100", "1000", "10000"})
+	public int stacks;
+
+	private PoolToggle[] toggles;
+	private PoolList<Object>[] lists;
+	private final Object value = new Object();
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		toggles = new PoolToggle[stacks];
+		lists = (PoolList<Object>[]) new PoolList<?>[stacks];
+		for(int i = 0; i < stacks; i++) {
+			toggles[i] = new PoolToggle();
+			lists[i] = new PoolList<>();
+		}
+	}
+
+	@Benchmark
+	public HandlerPool pushTogglesAndClose() {
+		HandlerPool pool = new HandlerPool();
+		for(PoolToggle toggle : toggles) {
+			toggle.push(pool);
+		}
+		pool.close();
+		return pool;
+	}
+
+	@Benchmark
+	public HandlerPool pushListsAndClose() {
+		HandlerPool pool = new HandlerPool();
+		for(PoolList<Object> list : lists) {
+			list.push(pool, value);
+		}
+		pool.close();
+		return pool;
+	}
+
+	@Benchmark
+	public HandlerPool emptyClose() {
+		HandlerPool pool = new HandlerPool();
+		pool.close();
+		return pool;
+	}
+}
@@ -0,0 +1,105 @@
+package me.thosea.flowpool.benchmark;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.pushable.AbstractPoolCollection;
+import me.thosea.flowpool.pushable.PoolList;
+import me.thosea.flowpool.pushable.PoolStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Push and {@link AbstractPoolCollection#popAndGet(HandlerPool)} on
+ * {@link PoolList} and {@link PoolStack}, holding {@code size} entries.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoolCollectionBenchmark {
+	@Param({"list", "stack", "indexedList", "indexedStack"})
+	public String type;
+
+	@Param({"1", "16", "500"})
+	public int size;
+
+	private AbstractPoolCollection<Object> pushable;
+	private HandlerPool[] pools;
+	private HandlerPool extraPool;
+	private int cursor;
+	private final Object value = new Object();
+
+	@Setup
+	public void setup() {
+		pushable = switch(type) {
+			case "list" -> new PoolList<>();
+			case "stack" -> new PoolStack<>();
+			case "indexedList" -> PoolList.indexed();
+			case "indexedStack" -> PoolStack.indexed();
+			default -> throw new IllegalArgumentException(type);
+		};
+
+		pools = new HandlerPool[size];
+		for(int i = 0; i < size; i++) {
+			pools[i] = new HandlerPool();
+			pushable.push(pools[i], value);
+		}
+
+		extraPool = new HandlerPool();
+		cursor = 0;
+	}
+
+	/**
+	 * Pushes a new pool and pops it again, the size stays constant.
+	 */
+	@Benchmark
+	public PoolEntry<Object> pushPopNewest() {
+		pushable.push(extraPool, value);
+		return pushable.popAndGet(extraPool);
+	}
+
+	/**
+	 * Pops the oldest pool and pushes it back, the size stays constant.
+	 */
+	@Benchmark
+	public PoolEntry<Object> popOldestRepush() {
+		HandlerPool pool = pools[cursor];
+		if(++cursor == size) cursor = 0;
+
+		PoolEntry<Object> entry = pushable.popAndGet(pool);
+		pushable.push(pool, value);
+		return entry;
+	}
+
+	/**
+	 * Pushing with a pool that already pushed, which replaces its entry.
+	 */
+	@Benchmark
+	public void repush() {
+		HandlerPool pool = pools[cursor];
+		if(++cursor == size) cursor = 0;
+
+		pushable.push(pool, value);
+	}
+
+	@Benchmark
+	public PoolEntry<Object> getPushEntry() {
+		HandlerPool pool = pools[cursor];
+		if(++cursor == size) cursor = 0;
+
+		return pushable.getPushEntry(pool);
+	}
+}
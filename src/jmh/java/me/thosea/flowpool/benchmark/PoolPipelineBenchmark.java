@@ -0,0 +1,148 @@
+package me.thosea.flowpool.benchmark;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.pipeline.IntOperator;
+import me.thosea.flowpool.pipeline.SingleArgFunction;
+import me.thosea.flowpool.pushable.PoolCompiledPipeline;
+import me.thosea.flowpool.pushable.PoolPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * {@link PoolPipeline#execute} and {@link PoolPipeline#executeReversed}
+ * through {@code depth} handlers that all call {@code ctx.pass()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoolPipelineBenchmark {
+	@Param({"1", "4", "16", "64", "256"})
+	public int depth;
+
+	private PoolPipeline<SingleArgFunction<Integer, Integer>, Integer> pipeline;
+	private final SingleArgFunction<Integer, Integer> bottom = (arg, ctx) -> arg;
+	private Integer input;
+
+	private PoolPipeline<IntOperator, Integer> intPipeline;
+	private final IntOperator intBottom = (arg, ctx) -> arg;
+	private int intInput;
+
+	private PoolCompiledPipeline<IntStage, IntUnaryOperator> compiledPipeline;
+
+	private final Integer[] batchInputs = new Integer[1024];
+	private final Integer[] batchOutputs = new Integer[1024];
+
+	@Setup
+	public void setup() {
+		pipeline = new PoolPipeline<>();
+		for(int i = 0; i < depth; i++) {
+			// a few distinct handler classes so the call site isn't monomorphic
+			pipeline.push(new HandlerPool(), switch(i % 3) {
+				case 0 -> (arg, ctx) -> ctx.pass().call(arg + 1, ctx);
+				case 1 -> (arg, ctx) -> ctx.pass().call(arg * 2, ctx);
+				default -> (arg, ctx) -> ctx.pass().call(arg - 1, ctx);
+			});
+		}
+		input = 3;
+
+		intPipeline = new PoolPipeline<>();
+		for(int i = 0; i < depth; i++) {
+			intPipeline.push(new HandlerPool(), switch(i % 3) {
+				case 0 -> (arg, ctx) -> ctx.pass().call(arg + 1, ctx);
+				case 1 -> (arg, ctx) -> ctx.pass().call(arg * 2, ctx);
+				default -> (arg, ctx) -> ctx.pass().call(arg - 1, ctx);
+			});
+		}
+		intInput = 3;
+		Arrays.fill(batchInputs, input);
+
+		compiledPipeline = new PoolCompiledPipeline<>(IntUnaryOperator.class,
+				(stage, next) -> arg -> stage.apply(arg, next),
+				arg -> arg);
+		for(int i = 0; i < depth; i++) {
+			compiledPipeline.push(new HandlerPool(), switch(i % 3) {
+				case 0 -> (arg, next) -> next.applyAsInt(arg + 1);
+				case 1 -> (arg, next) -> next.applyAsInt(arg * 2);
+				default -> (arg, next) -> next.applyAsInt(arg - 1);
+			});
+		}
+	}
+
+	@Benchmark
+	public Integer execute() {
+		Integer arg = input;
+		return pipeline.execute((initial, ctx) -> {
+			return initial.call(arg, ctx);
+		}, bottom);
+	}
+
+	@Benchmark
+	public Integer executeReversed() {
+		Integer arg = input;
+		return pipeline.executeReversed((initial, ctx) -> {
+			return initial.call(arg, ctx);
+		}, bottom);
+	}
+
+	/**
+	 * Same chain with {@link IntOperator} handlers, nothing is boxed.
+	 */
+	@Benchmark
+	public int executeInt() {
+		int arg = intInput;
+		return intPipeline.executeInt((initial, ctx) -> initial.call(arg, ctx), intBottom);
+	}
+
+	/**
+	 * {@link #execute()} over 1024 inputs, one context for the whole batch.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(1024)
+	public Integer[] executeBatch() {
+		pipeline.executeBatch(batchInputs, batchOutputs, (initial, arg, ctx) -> initial.call(arg, ctx), bottom);
+		return batchOutputs;
+	}
+
+	/**
+	 * Same chain linked ahead of time by {@link PoolCompiledPipeline}.
+	 */
+	@Benchmark
+	public int executeCompiled() {
+		return compiledPipeline.get().applyAsInt(intInput);
+	}
+
+	/**
+	 * Handler that pushes and pops while executing, so modifications are queued.
+	 */
+	@Benchmark
+	public Integer executeWithQueuedModification() {
+		HandlerPool pool = new HandlerPool();
+		Integer arg = input;
+		return pipeline.execute((initial, ctx) -> {
+			pipeline.push(pool, bottom);
+			pipeline.pop(pool);
+			return initial.call(arg, ctx);
+		}, bottom);
+	}
+
+	public interface IntStage {
+		int apply(int arg, IntUnaryOperator next);
+	}
+}
\ No newline at end of file
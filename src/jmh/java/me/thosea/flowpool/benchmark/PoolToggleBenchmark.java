@@ -0,0 +1,80 @@
+package me.thosea.flowpool.benchmark;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.pushable.PoolBitToggle;
+import me.thosea.flowpool.pushable.PoolToggle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PoolToggle#push(HandlerPool)} and {@link PoolToggle#pop(HandlerPool)}
+ * on a toggle that is already pushed by {@code pushed} other pools,
+ * and the same for {@link PoolBitToggle}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoolToggleBenchmark {
+	@Param({"0", "3", "64"})
+	public int pushed;
+
+	private PoolToggle toggle;
+	private PoolBitToggle bitToggle;
+	private HandlerPool pool;
+
+	@Setup
+	public void setup() {
+		toggle = new PoolToggle();
+		bitToggle = new PoolBitToggle();
+		pool = new HandlerPool();
+
+		for(int i = 0; i < pushed; i++) {
+			HandlerPool other = new HandlerPool();
+			toggle.push(other);
+			bitToggle.push(other);
+		}
+	}
+
+	@Benchmark
+	public boolean pushPop() {
+		toggle.push(pool);
+		return toggle.pop(pool);
+	}
+
+	@Benchmark
+	public boolean pushTwicePop() {
+		toggle.push(pool);
+		toggle.push(pool); // no-op push
+		return toggle.pop(pool);
+	}
+
+	@Benchmark
+	public boolean isPushed() {
+		return toggle.isPushed();
+	}
+
+	@Benchmark
+	public boolean bitPushPop() {
+		bitToggle.push(pool);
+		return bitToggle.pop(pool);
+	}
+
+	@Benchmark
+	public boolean bitIsPushed() {
+		return bitToggle.isPushed();
+	}
+}
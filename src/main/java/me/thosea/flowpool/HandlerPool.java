@@ -1,24 +1,30 @@
 package me.thosea.flowpool;
 
-import lombok.Getter;
 import lombok.NonNull;
+import me.thosea.flowpool.jfr.HandlerPoolCloseEvent;
+import me.thosea.flowpool.metrics.PoolMetrics;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * The definition of overengineering.<br>
  * A HandlerPool groups pushed stacks.
  * @author thosea
  */
-@Getter
 public class HandlerPool {
-	private final List<Runnable> closeCallbacks = new ArrayList<>();
-	private final Set<IPoolPushable<?>> pushedStacks = new HashSet<>();
+	// pool of the innermost scope on this thread, removed once the outermost scope exits
+	// so threads that used a scope once don't keep an entry in their ThreadLocal map
+	private static final ThreadLocal<HandlerPool> CURRENT = new ThreadLocal<>();
+
+	// both allocated on first use, most pools only push a few stacks
+	private List<Runnable> closeCallbacks;
+	private PushedStackSet pushedStacks;
+	private int id = -1;
 
 	/**
 	 * Adds a callback to be ran when {@link #close()} is called.
@@ -27,7 +33,7 @@ public class HandlerPool {
 	 */
 	public void runOnClose(@NonNull Runnable action) {
 		Objects.requireNonNull(action);
-		closeCallbacks.add(action);
+		getCloseCallbacks().add(action);
 	}
 
 	/**
@@ -35,7 +41,7 @@ public class HandlerPool {
 	 * @return true if the stack was pushed by this HandlerPool
 	 */
 	public boolean isPushing(IPoolPushable<?> stack) {
-		return pushedStacks.contains(stack);
+		return pushedStacks != null && pushedStacks.contains(stack);
 	}
 
 	/**
@@ -44,17 +50,186 @@ public class HandlerPool {
 	 * @see #runOnClose(Runnable)
 	 */
 	public void close() {
-		if(!closeCallbacks.isEmpty()) {
-			Iterator<Runnable> iterator = this.closeCallbacks.iterator();
-			while(iterator.hasNext()) {
-				iterator.next().run();
-				iterator.remove();
+		HandlerPoolCloseEvent event = HandlerPoolCloseEvent.start();
+
+		List<Runnable> callbacks = this.closeCallbacks;
+		int ran = 0;
+		if(callbacks != null && !callbacks.isEmpty()) {
+			try {
+				while(ran < callbacks.size()) {
+					callbacks.get(ran).run();
+					ran++;
+				}
+			} finally {
+				// if a callback threw, it and the ones after it stay queued for the next close
+				callbacks.subList(0, ran).clear();
 			}
 		}
 
-		if(!pushedStacks.isEmpty()) {
-			for(Object obj : pushedStacks.toArray()) {
-				((IPoolPushable<?>) obj).pop(this);
+		int popped = 0;
+		if(pushedStacks != null && !pushedStacks.isEmpty()) {
+			int before = pushedStacks.size();
+			pushedStacks.popAll(this);
+			popped = before - pushedStacks.size();
+		}
+
+		// nothing holds the id once everything is popped
+		if(pushedStacks == null || pushedStacks.isEmpty()) {
+			releaseId();
+		}
+
+		if(event != null) event.end(this, ran, popped);
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onClose(this, popped);
+	}
+
+	/**
+	 * Closes this pool and gives its id back even if {@link #close()} kept it, see {@link #getId()}.<br>
+	 * The HandlerPool can still be used after, it will get a new id if needed.
+	 */
+	public void release() {
+		this.close();
+		this.releaseId();
+	}
+
+	/**
+	 * Gives the id of this pool back if it has one, see {@link #getId()}.
+	 */
+	protected void releaseId() {
+		if(id != -1) {
+			PoolIdAllocator.release(id);
+			id = -1;
+		}
+	}
+
+	/**
+	 * Gets the id of this pool, assigning one if there isn't one yet.<br>
+	 * Ids are dense: they start at zero and freed ids are reused,
+	 * so they can be used as array or bit indexes.
+	 * The id is given back by {@link #close()} once nothing pushed by this pool is left,
+	 * and always by {@link #release()}.
+	 * @return id of this pool
+	 */
+	public int getId() {
+		if(id == -1) {
+			id = PoolIdAllocator.acquire();
+		}
+		return id;
+	}
+
+	/**
+	 * @return true if this pool has an id, see {@link #getId()}
+	 */
+	public boolean hasId() {
+		return id != -1;
+	}
+
+	/**
+	 * @return callbacks ran on {@link #close()}, allocated on first call
+	 */
+	public List<Runnable> getCloseCallbacks() {
+		if(closeCallbacks == null) {
+			closeCallbacks = new ArrayList<>(2);
+		}
+		return closeCallbacks;
+	}
+
+	/**
+	 * Gets the stacks pushed by this pool. This is an identity set,
+	 * pushables add and remove themselves from it when pushed or popped.
+	 * @return pushed stacks, allocated on first call
+	 */
+	public Set<IPoolPushable<?>> getPushedStacks() {
+		if(pushedStacks == null) {
+			pushedStacks = new PushedStackSet();
+		}
+		return pushedStacks;
+	}
+
+	/**
+	 * Runs the action with a new HandlerPool as the {@link #current() current pool},
+	 * then closes it. Pushables can be pushed to the current pool without passing it around,
+	 * like {@link IPoolPushable#push(Object)}.<br>
+	 * Scopes nest: the previous pool becomes current again once the action returns.
+	 * The scope is bound to the calling thread, it doesn't follow tasks submitted to other threads.
+	 * @param action action to run
+	 */
+	public static void runScoped(@NonNull Runnable action) {
+		runScoped(new HandlerPool(), action);
+	}
+
+	/**
+	 * Runs the action with the specified pool as the {@link #current() current pool},
+	 * then closes it. See {@link #runScoped(Runnable)}.
+	 * @param pool pool to bind
+	 * @param action action to run
+	 */
+	public static void runScoped(@NonNull HandlerPool pool, @NonNull Runnable action) {
+		HandlerPool previous = CURRENT.get();
+		CURRENT.set(pool);
+		try {
+			action.run();
+		} finally {
+			exitScope(pool, previous);
+		}
+	}
+
+	/**
+	 * Calls the action with a new HandlerPool as the {@link #current() current pool},
+	 * then closes it. See {@link #runScoped(Runnable)}.
+	 * @param action action to call
+	 * @return result of the action
+	 * @param <R> result type
+	 */
+	public static <R> R callScoped(@NonNull Supplier<R> action) {
+		return callScoped(new HandlerPool(), action);
+	}
+
+	/**
+	 * Calls the action with the specified pool as the {@link #current() current pool},
+	 * then closes it. See {@link #runScoped(Runnable)}.
+	 * @param pool pool to bind
+	 * @param action action to call
+	 * @return result of the action
+	 * @param <R> result type
+	 */
+	public static <R> R callScoped(@NonNull HandlerPool pool, @NonNull Supplier<R> action) {
+		HandlerPool previous = CURRENT.get();
+		CURRENT.set(pool);
+		try {
+			return action.get();
+		} finally {
+			exitScope(pool, previous);
+		}
+	}
+
+	/**
+	 * @return pool of the innermost {@link #runScoped(Runnable) scope} on this thread
+	 * @throws IllegalStateException if this thread isn't in a scope
+	 */
+	public static HandlerPool current() {
+		HandlerPool pool = CURRENT.get();
+		if(pool == null) {
+			throw new IllegalStateException("Not in a HandlerPool scope, see HandlerPool.runScoped");
+		}
+		return pool;
+	}
+
+	/**
+	 * @return pool of the innermost {@link #runScoped(Runnable) scope} on this thread, or null if not in one
+	 */
+	@Nullable
+	public static HandlerPool currentOrNull() {
+		return CURRENT.get();
+	}
+
+	private static void exitScope(HandlerPool pool, HandlerPool previous) {
+		try {
+			pool.close();
+		} finally {
+			if(previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
 			}
 		}
 	}
@@ -3,6 +3,15 @@ package me.thosea.flowpool;
 public interface IPoolPushable<T> {
 	void push(HandlerPool pool, T obj);
 
+	/**
+	 * Pushes the object with the {@link HandlerPool#current() current pool}.
+	 * @param obj object to push
+	 * @throws IllegalStateException if not in a {@link HandlerPool#runScoped(Runnable) scope}
+	 */
+	default void push(T obj) {
+		push(HandlerPool.current(), obj);
+	}
+
 	/**
 	 * Removes the {@link HandlerPool}'s push from this pushable,
 	 * does nothing if the HandlerPool hasn't pushed this.
@@ -11,6 +20,15 @@ public interface IPoolPushable<T> {
 	 */
 	boolean pop(HandlerPool pool);
 
+	/**
+	 * Removes the push of the {@link HandlerPool#current() current pool}, see {@link #pop(HandlerPool)}.
+	 * @return true if the push was removed, false if not pushed by the pool
+	 * @throws IllegalStateException if not in a {@link HandlerPool#runScoped(Runnable) scope}
+	 */
+	default boolean pop() {
+		return pop(HandlerPool.current());
+	}
+
 	/**
 	 * @return amount of times this pushable was pushed
 	 */
@@ -0,0 +1,33 @@
+package me.thosea.flowpool;
+
+import java.util.BitSet;
+
+/**
+ * Hands out dense {@link HandlerPool} ids, always the lowest free one,
+ * so structures indexed by id like {@link me.thosea.flowpool.pushable.PoolBitToggle} stay small.
+ * Synchronized since pools may be created and released from different threads.
+ */
+final class PoolIdAllocator {
+	private static final BitSet USED = new BitSet();
+	private static int lowestFree = 0;
+
+	private PoolIdAllocator() {}
+
+	static synchronized int acquire() {
+		int id = USED.nextClearBit(lowestFree);
+		if(id < 0) {
+			throw new IllegalStateException("Ran out of HandlerPool ids");
+		}
+
+		USED.set(id);
+		lowestFree = id + 1;
+		return id;
+	}
+
+	static synchronized void release(int id) {
+		USED.clear(id);
+		if(id < lowestFree) {
+			lowestFree = id;
+		}
+	}
+}
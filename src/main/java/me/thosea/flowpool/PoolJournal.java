@@ -0,0 +1,172 @@
+package me.thosea.flowpool;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Undo log of pushes and pops, for snapshotting and rolling back pushable state.<br>
+ * While a journal is {@link #start() started} on a thread, built-in pushables record how to undo
+ * every push and pop made on that thread, including the {@link HandlerPool#getPushedStacks()} back-references.
+ * Taking a {@link #snapshot()} is O(1), and {@link #rollback(int)} is proportional to the changes made since.
+ * Example: <pre>{@code
+ * PoolJournal journal = new PoolJournal();
+ * journal.start();
+ * int snapshot = journal.snapshot();
+ * simulate(); // pushes and pops
+ * journal.rollback(snapshot);
+ * journal.stop();
+ * }</pre>
+ * Rolling back restores entries at their old positions without calling push or pop callbacks,
+ * and isn't recorded itself. Changes made while the journal isn't started on the thread,
+ * or by editing a collection directly, aren't recorded and can't be rolled back.
+ * Concurrent pushables, {@link me.thosea.flowpool.pushable.PoolMap} and {@link me.thosea.flowpool.pushable.PoolEventBus}
+ * aren't journaled.
+ * @author thosea
+ */
+public final class PoolJournal {
+	private static final Runnable[] EMPTY = new Runnable[0];
+	private static final ThreadLocal<PoolJournal> CURRENT = new ThreadLocal<>();
+	// started journals on all threads, checked before the ThreadLocal so pushables pay nothing without one
+	private static volatile int started = 0;
+
+	private Runnable[] undos = EMPTY;
+	private int size = 0;
+	private boolean rollingBack = false;
+	@Nullable private Thread owner;
+	@Nullable private PoolJournal previous;
+
+	/**
+	 * @return true if a journal is started on this thread
+	 */
+	public static boolean isRecording() {
+		return started != 0 && CURRENT.get() != null;
+	}
+
+	/**
+	 * Records how to undo a change, if a journal is started on this thread.
+	 * For pushables, the built-in ones already do this.
+	 * @param undo action undoing the change, ran on {@link #rollback(int)}
+	 */
+	public static void record(@NonNull Runnable undo) {
+		if(started == 0) return;
+
+		PoolJournal journal = CURRENT.get();
+		if(journal != null && !journal.rollingBack) {
+			journal.add(undo);
+		}
+	}
+
+	/**
+	 * Starts recording changes made on this thread.
+	 * If another journal is started on this thread, it stops recording until this one is stopped.
+	 * @throws IllegalStateException if this journal is already started
+	 */
+	public void start() {
+		if(owner != null) {
+			throw new IllegalStateException("Journal is already started");
+		}
+
+		this.owner = Thread.currentThread();
+		this.previous = CURRENT.get();
+		CURRENT.set(this);
+		synchronized(PoolJournal.class) {
+			started++;
+		}
+	}
+
+	/**
+	 * Stops recording changes. The recorded changes are kept and can still be rolled back.
+	 * @throws IllegalStateException if this journal isn't the innermost one started on this thread
+	 */
+	public void stop() {
+		if(owner != Thread.currentThread() || CURRENT.get() != this) {
+			throw new IllegalStateException("Journal is not the innermost one started on this thread");
+		}
+
+		if(previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+
+		this.owner = null;
+		this.previous = null;
+		synchronized(PoolJournal.class) {
+			started--;
+		}
+	}
+
+	/**
+	 * Runs the action with this journal started.
+	 * @param action action to run
+	 */
+	public void run(@NonNull Runnable action) {
+		this.start();
+		try {
+			action.run();
+		} finally {
+			this.stop();
+		}
+	}
+
+	/**
+	 * @return snapshot of the current state, to pass to {@link #rollback(int)}
+	 */
+	public int snapshot() {
+		return size;
+	}
+
+	/**
+	 * Undoes every change recorded after the snapshot, most recent first.
+	 * Snapshots taken after this one become invalid.
+	 * @param snapshot value from {@link #snapshot()}
+	 * @throws IllegalArgumentException if the snapshot is newer than the log, likely from before another rollback
+	 */
+	public void rollback(int snapshot) {
+		if(snapshot < 0 || snapshot > size) {
+			throw new IllegalArgumentException("Invalid snapshot " + snapshot + ", log size is " + size);
+		}
+
+		rollingBack = true;
+		try {
+			while(size > snapshot) {
+				Runnable undo = undos[--size];
+				undos[size] = null;
+				undo.run();
+			}
+		} finally {
+			rollingBack = false;
+		}
+	}
+
+	/**
+	 * Undoes every recorded change.
+	 */
+	public void rollback() {
+		rollback(0);
+	}
+
+	/**
+	 * Forgets every recorded change, keeping the current state. Previous snapshots become invalid.
+	 */
+	public void clear() {
+		Arrays.fill(undos, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * @return amount of recorded changes
+	 */
+	public int size() {
+		return size;
+	}
+
+	private void add(Runnable undo) {
+		if(size == undos.length) {
+			undos = Arrays.copyOf(undos, Math.max(16, size << 1));
+		}
+		undos[size++] = undo;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,236 @@
+package me.thosea.flowpool;
+
+import lombok.NonNull;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Identity set backing {@link HandlerPool#getPushedStacks()}.<br>
+ * Pushables are kept in a small array and found with a linear scan,
+ * an open-addressing identity table indexing the array is only built
+ * once the set grows past {@link #INDEX_THRESHOLD}.
+ * Removal swaps the last pushable into the freed slot, so nothing is allocated
+ * after the array and table reach their peak size.
+ */
+final class PushedStackSet extends AbstractSet<IPoolPushable<?>> {
+	/**
+	 * Size after which lookups go through the identity table instead of a linear scan.
+	 */
+	static final int INDEX_THRESHOLD = 8;
+
+	private static final IPoolPushable<?>[] EMPTY = new IPoolPushable<?>[0];
+	private static final int INITIAL_CAPACITY = 4;
+
+	private IPoolPushable<?>[] stacks = EMPTY;
+	private int size;
+	private int modCount;
+
+	// identity table, null until size > INDEX_THRESHOLD
+	// keys[i] is a pushable, slots[i] is its index in stacks
+	private IPoolPushable<?>[] keys;
+	private int[] slots;
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return o != null && indexOf(o) >= 0;
+	}
+
+	@Override
+	public boolean add(@NonNull IPoolPushable<?> stack) {
+		if(indexOf(stack) >= 0) return false;
+
+		if(size == stacks.length) {
+			stacks = Arrays.copyOf(stacks, Math.max(INITIAL_CAPACITY, size << 1));
+		}
+
+		stacks[size] = stack;
+		size++;
+		modCount++;
+
+		if(keys != null) {
+			tablePut(stack, size - 1);
+		} else if(size > INDEX_THRESHOLD) {
+			rebuildTable(tableCapacityFor(size));
+		}
+
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if(o == null) return false;
+
+		int index = indexOf(o);
+		if(index < 0) return false;
+
+		removeAt(index);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(stacks, 0, size, null);
+		size = 0;
+		modCount++;
+
+		if(keys != null) {
+			Arrays.fill(keys, null);
+		}
+	}
+
+	@Override
+	public Iterator<IPoolPushable<?>> iterator() {
+		return new Iterator<>() {
+			private int cursor;
+			private int lastReturned = -1;
+			private int expectedModCount = modCount;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < size;
+			}
+
+			@Override
+			public IPoolPushable<?> next() {
+				if(modCount != expectedModCount) throw new ConcurrentModificationException();
+				if(cursor >= size) throw new NoSuchElementException();
+
+				lastReturned = cursor;
+				return stacks[cursor++];
+			}
+
+			@Override
+			public void remove() {
+				if(lastReturned < 0) throw new IllegalStateException();
+				if(modCount != expectedModCount) throw new ConcurrentModificationException();
+
+				// the last element is swapped into lastReturned, visit it next
+				removeAt(lastReturned);
+				cursor = lastReturned;
+				lastReturned = -1;
+				expectedModCount = modCount;
+			}
+		};
+	}
+
+	/**
+	 * Pops every pushable in the set without copying it.
+	 * Walks from the most recently added one, so pops are swap-free
+	 * and pushables added while popping are left alone.
+	 * @param pool HandlerPool owning this set
+	 */
+	void popAll(HandlerPool pool) {
+		for(int i = size - 1; i >= 0; i--) {
+			if(i < size) { // a pop callback may have removed others
+				stacks[i].pop(pool);
+			}
+		}
+	}
+
+	private void removeAt(int index) {
+		IPoolPushable<?> removed = stacks[index];
+		int last = size - 1;
+		IPoolPushable<?> moved = stacks[last];
+
+		stacks[index] = moved;
+		stacks[last] = null;
+		size = last;
+		modCount++;
+
+		if(keys != null) {
+			tableRemove(removed);
+			if(index != last) {
+				tablePut(moved, index);
+			}
+		}
+	}
+
+	private int indexOf(Object o) {
+		if(keys == null) {
+			IPoolPushable<?>[] stacks = this.stacks;
+			for(int i = 0; i < size; i++) {
+				if(stacks[i] == o) return i;
+			}
+			return -1;
+		}
+
+		int mask = keys.length - 1;
+		for(int i = hash(o, mask); ; i = (i + 1) & mask) {
+			IPoolPushable<?> key = keys[i];
+			if(key == o) return slots[i];
+			if(key == null) return -1;
+		}
+	}
+
+	private void tablePut(IPoolPushable<?> stack, int index) {
+		if((size << 1) > keys.length) {
+			rebuildTable(keys.length << 1);
+			return; // rebuild indexes the whole array, including this one
+		}
+
+		int mask = keys.length - 1;
+		int i = hash(stack, mask);
+		while(keys[i] != null && keys[i] != stack) {
+			i = (i + 1) & mask;
+		}
+
+		keys[i] = stack;
+		slots[i] = index;
+	}
+
+	private void tableRemove(IPoolPushable<?> stack) {
+		int mask = keys.length - 1;
+		int i = hash(stack, mask);
+		while(keys[i] != stack) {
+			i = (i + 1) & mask;
+		}
+
+		// backward shift deletion, keeps probe chains intact without tombstones
+		int gap = i;
+		for(i = (i + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+			int home = hash(keys[i], mask);
+			if(((i - home) & mask) >= ((i - gap) & mask)) {
+				keys[gap] = keys[i];
+				slots[gap] = slots[i];
+				gap = i;
+			}
+		}
+
+		keys[gap] = null;
+	}
+
+	private void rebuildTable(int capacity) {
+		keys = new IPoolPushable<?>[capacity];
+		slots = new int[capacity];
+
+		int mask = capacity - 1;
+		for(int index = 0; index < size; index++) {
+			int i = hash(stacks[index], mask);
+			while(keys[i] != null) {
+				i = (i + 1) & mask;
+			}
+
+			keys[i] = stacks[index];
+			slots[i] = index;
+		}
+	}
+
+	private static int tableCapacityFor(int size) {
+		// load factor of at most 0.5
+		return Integer.highestOneBit(size) << 2;
+	}
+
+	private static int hash(Object o, int mask) {
+		int h = System.identityHashCode(o);
+		return (h ^ (h >>> 16)) & mask;
+	}
+}
@@ -0,0 +1,116 @@
+package me.thosea.flowpool.concurrent;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.IPoolPushable;
+import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.metrics.PoolMetrics;
+import me.thosea.flowpool.pushable.AbstractPoolCollection;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Provides a base for thread-safe collection-based {@link IPoolPushable}s.<br>
+ * Pushes and pops of the same {@link HandlerPool} are linearizable,
+ * and operations of different pools don't block each other.
+ * Reads never block and see a weakly consistent view of the entries.
+ * Entries pushed at the same time by different threads are ordered by when their push took effect.
+ * @param <T> collection type
+ * @see ConcurrentHandlerPool
+ */
+public abstract class AbstractConcurrentPoolCollection<T> implements IPoolPushable<T> {
+	private final ConcurrentEntries<T> entries;
+
+	protected AbstractConcurrentPoolCollection() {
+		this(AbstractPoolCollection.DEFAULT_COLLECTION_SIZE);
+	}
+
+	protected AbstractConcurrentPoolCollection(int initialCapacity) {
+		this.entries = new ConcurrentEntries<>(initialCapacity);
+	}
+
+	// abstract to force superclasses to write docs
+	@Override
+	public abstract void push(HandlerPool pool, T obj);
+
+	protected void doPush(HandlerPool pool, T obj, boolean front) {
+		PoolEntry<T> entry = new PoolEntry<>(pool, obj);
+		PoolEntry<T> replaced = entries.push(entry, front, this);
+
+		if(replaced != null) {
+			if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPop(this, pool);
+			this.onPop(replaced);
+		}
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPush(this, pool);
+		this.onPush(entry);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean pop(HandlerPool pool) {
+		return popAndGet(pool) != null;
+	}
+
+	/**
+	 * Removes the {@link HandlerPool}'s push from this pushable,
+	 * does nothing if the HandlerPool hasn't pushed this.
+	 * @param pool HandlerPool
+	 * @return removed {@link PoolEntry} or null if not pushed by pool
+	 */
+	@Nullable
+	public PoolEntry<T> popAndGet(HandlerPool pool) {
+		PoolEntry<T> entry = entries.pop(pool, this);
+		if(entry != null) {
+			if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPop(this, pool);
+			this.onPop(entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * Returns the PoolEntry pushed onto the stack by the HandlerPool.
+	 * @param pool HandlerPool
+	 * @return {@link PoolEntry} if pushed by it, null otherwise
+	 */
+	@Nullable
+	public PoolEntry<T> getPushEntry(HandlerPool pool) {
+		return pool == null ? null : entries.get(pool);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getPushCount() {
+		return entries.size();
+	}
+
+	/**
+	 * @return snapshot of the entries in iteration order
+	 */
+	public List<PoolEntry<T>> getEntrySnapshot() {
+		return entries.snapshot();
+	}
+
+	/**
+	 * @return snapshot of the objects in iteration order
+	 */
+	public List<T> getEntries() {
+		return entries.objects();
+	}
+
+	@Nullable
+	protected PoolEntry<T> firstEntry() {
+		return entries.first();
+	}
+
+	@Nullable
+	protected PoolEntry<T> lastEntry() {
+		return entries.last();
+	}
+
+	protected abstract void onPush(PoolEntry<T> entry);
+	protected abstract void onPop(PoolEntry<T> entry);
+}
@@ -0,0 +1,132 @@
+package me.thosea.flowpool.concurrent;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.IPoolPushable;
+import me.thosea.flowpool.PoolEntry;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ordered entry storage shared by the concurrent pushables.<br>
+ * Entries are kept in a skip list ordered by sequence number: pushes to the front
+ * take decreasing negative numbers, pushes to the back take increasing ones.
+ * Every change for a pool runs inside {@link ConcurrentHashMap#compute} on that pool,
+ * including the update of {@link HandlerPool#getPushedStacks()}, so operations
+ * of the same pool are serialized while operations of other pools run in parallel.
+ * @param <T> object type
+ */
+final class ConcurrentEntries<T> {
+	private final ConcurrentHashMap<HandlerPool, Node<T>> byPool;
+	private final ConcurrentSkipListSet<Node<T>> ordered = new ConcurrentSkipListSet<>(Comparator.comparingLong(node -> node.seq));
+	private final AtomicLong frontSeq = new AtomicLong();
+	private final AtomicLong backSeq = new AtomicLong();
+
+	ConcurrentEntries(int initialCapacity) {
+		this.byPool = new ConcurrentHashMap<>(initialCapacity);
+	}
+
+	/**
+	 * @return the entry of the same pool replaced by this push, or null
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	PoolEntry<T> push(PoolEntry<T> entry, boolean front, IPoolPushable<?> owner) {
+		Object[] replaced = new Object[1];
+
+		byPool.compute(entry.pool(), (pool, old) -> {
+			if(old != null) {
+				ordered.remove(old);
+				replaced[0] = old.entry;
+			} else {
+				pool.getPushedStacks().add(owner);
+			}
+
+			Node<T> node = new Node<>(entry, front ? frontSeq.decrementAndGet() : backSeq.getAndIncrement());
+			ordered.add(node);
+			return node;
+		});
+
+		return (PoolEntry<T>) replaced[0];
+	}
+
+	/**
+	 * @return removed entry, or null if the pool has none
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	PoolEntry<T> pop(HandlerPool pool, IPoolPushable<?> owner) {
+		if(!byPool.containsKey(pool)) return null;
+
+		Object[] removed = new Object[1];
+		byPool.computeIfPresent(pool, (key, node) -> {
+			ordered.remove(node);
+			key.getPushedStacks().remove(owner);
+			removed[0] = node.entry;
+			return null;
+		});
+
+		return (PoolEntry<T>) removed[0];
+	}
+
+	@Nullable
+	PoolEntry<T> get(HandlerPool pool) {
+		Node<T> node = byPool.get(pool);
+		return node == null ? null : node.entry;
+	}
+
+	int size() {
+		return byPool.size();
+	}
+
+	@Nullable
+	PoolEntry<T> first() {
+		Iterator<Node<T>> iterator = ordered.iterator();
+		return iterator.hasNext() ? iterator.next().entry : null;
+	}
+
+	@Nullable
+	PoolEntry<T> last() {
+		Iterator<Node<T>> iterator = ordered.descendingIterator();
+		return iterator.hasNext() ? iterator.next().entry : null;
+	}
+
+	/**
+	 * @return entries from front to back, unmodifiable
+	 */
+	List<PoolEntry<T>> snapshot() {
+		List<PoolEntry<T>> result = new ArrayList<>(byPool.size());
+		for(Node<T> node : ordered) {
+			result.add(node.entry);
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * @return objects from front to back, unmodifiable
+	 */
+	List<T> objects() {
+		List<T> result = new ArrayList<>(byPool.size());
+		for(Node<T> node : ordered) {
+			result.add(node.entry.obj());
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	private static final class Node<T> {
+		private final PoolEntry<T> entry;
+		private final long seq;
+
+		private Node(PoolEntry<T> entry, long seq) {
+			this.entry = entry;
+			this.seq = seq;
+		}
+	}
+}
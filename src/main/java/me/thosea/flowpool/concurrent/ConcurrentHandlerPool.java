@@ -0,0 +1,125 @@
+package me.thosea.flowpool.concurrent;
+
+import lombok.NonNull;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.IPoolPushable;
+import me.thosea.flowpool.jfr.HandlerPoolCloseEvent;
+import me.thosea.flowpool.metrics.PoolMetrics;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Thread-safe {@link HandlerPool}, for pools that push or close from multiple threads.<br>
+ * The pushed stacks are kept in a concurrent set, so pushables can register
+ * and unregister themselves while another thread closes the pool.
+ * {@link #close()} pops everything pushed before it started,
+ * pushes that happen while it runs may or may not be popped.
+ */
+public class ConcurrentHandlerPool extends HandlerPool {
+	private final Queue<Runnable> closeCallbacks = new ConcurrentLinkedQueue<>();
+	private final Set<IPoolPushable<?>> pushedStacks = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Adds a callback to be ran when {@link #close()} is called.
+	 * @param action action to run
+	 * @throws NullPointerException if action is null
+	 */
+	@Override
+	public void runOnClose(@NonNull Runnable action) {
+		Objects.requireNonNull(action);
+		closeCallbacks.add(action);
+	}
+
+	/**
+	 * @param stack stack to check
+	 * @return true if the stack was pushed by this HandlerPool
+	 */
+	@Override
+	public boolean isPushing(IPoolPushable<?> stack) {
+		return pushedStacks.contains(stack);
+	}
+
+	/**
+	 * Runs closed callbacks, then pops all pushed stacks.<br>
+	 * Each callback is ran once even if multiple threads close at the same time.
+	 * The HandlerPool can still be used after.
+	 * @see #runOnClose(Runnable)
+	 */
+	@Override
+	public void close() {
+		HandlerPoolCloseEvent event = HandlerPoolCloseEvent.start();
+
+		int ran = 0;
+		Runnable callback;
+		while((callback = closeCallbacks.poll()) != null) {
+			callback.run();
+			ran++;
+		}
+
+		int popped = 0;
+		for(IPoolPushable<?> stack : pushedStacks) {
+			if(stack.pop(this)) popped++;
+		}
+
+		// id-based pushables aren't thread-safe, so no push using the id can race this
+		if(pushedStacks.isEmpty()) {
+			releaseId();
+		}
+
+		if(event != null) event.end(this, ran, popped);
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onClose(this, popped);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void release() {
+		super.release();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected synchronized void releaseId() {
+		super.releaseId();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized int getId() {
+		return super.getId();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized boolean hasId() {
+		return super.hasId();
+	}
+
+	/**
+	 * @return snapshot of the callbacks ran on {@link #close()}
+	 */
+	@Override
+	public List<Runnable> getCloseCallbacks() {
+		return List.copyOf(closeCallbacks);
+	}
+
+	/**
+	 * @return pushed stacks, a concurrent set
+	 */
+	@Override
+	public Set<IPoolPushable<?>> getPushedStacks() {
+		return pushedStacks;
+	}
+}
@@ -0,0 +1,68 @@
+package me.thosea.flowpool.concurrent;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.jfr.PushableCallbackEvent;
+import me.thosea.flowpool.pushable.PoolList;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Thread-safe {@link PoolList}.
+ * First-in, last-iterated pushable managed by {@link HandlerPool}s.
+ * @param <T> type
+ * @see AbstractConcurrentPoolCollection
+ */
+@Setter
+@Getter @Accessors(fluent = true, chain = true)
+public class ConcurrentPoolList<T> extends AbstractConcurrentPoolCollection<T> {
+	private volatile BiConsumer<ConcurrentPoolList<T>, PoolEntry<T>> pushCallback;
+	private volatile BiConsumer<ConcurrentPoolList<T>, PoolEntry<T>> popCallback;
+
+	/**
+	 * Constructs a new ConcurrentPoolList.
+	 */
+	public ConcurrentPoolList() {}
+
+	/**
+	 * Constructs a new ConcurrentPoolList with the specified initial capacity.
+	 * @param initialCapacity initial capacity
+	 */
+	public ConcurrentPoolList(int initialCapacity) {
+		super(initialCapacity);
+	}
+
+	/**
+	 * Pushes the object to the back of the list.
+	 * It will be the last objected iterated over until another object is pushed.
+	 * @param pool HandlerPool
+	 * @param obj object to push
+	 */
+	@Override
+	public void push(HandlerPool pool, T obj) {
+		doPush(pool, obj, false);
+	}
+
+	/**
+	 * Pushes the object to the front of the list.
+	 * It will be the first objected iterated over.
+	 * @param pool HandlerPool
+	 * @param obj object to push
+	 */
+	public void pushFirst(HandlerPool pool, T obj) {
+		doPush(pool, obj, true);
+	}
+
+	@Override
+	protected void onPush(PoolEntry<T> entry) {
+		PushableCallbackEvent.call(this, true, this.pushCallback, entry);
+	}
+
+	@Override
+	protected void onPop(PoolEntry<T> entry) {
+		PushableCallbackEvent.call(this, false, this.popCallback, entry);
+	}
+}
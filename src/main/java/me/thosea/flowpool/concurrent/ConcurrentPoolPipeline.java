@@ -0,0 +1,295 @@
+package me.thosea.flowpool.concurrent;
+
+import lombok.NonNull;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.metrics.PoolMetrics;
+import me.thosea.flowpool.pushable.PoolPipeline;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe and re-entrant {@link PoolPipeline}.<br>
+ * Each execution captures an immutable handler array and gets its own context,
+ * so any number of threads can execute at the same time, and handlers can execute the pipeline again.
+ * The array is copy-on-write: pushes and pops build a new one under a lock held by this pipeline only,
+ * executions and other reads never lock. This suits pipelines that execute far more often than they change.<p>
+ * Pushes and pops are never queued, they apply right away to executions that start after them,
+ * including when called from a handler. Executions that already started keep their handlers.
+ * {@link #getDepth()} is always zero.
+ * @param <T> handler type
+ * @param <R> return type
+ */
+public class ConcurrentPoolPipeline<T, R> extends PoolPipeline<T, R> {
+	private static final PoolEntry<?>[] NO_ENTRIES = new PoolEntry<?>[0];
+	private static final Object[] NO_HANDLERS = new Object[0];
+
+	private final Object writeLock = new Object();
+
+	// both in list order, replaced together under writeLock, never modified once published
+	private volatile PoolEntry<T>[] entries = emptyEntries();
+	private volatile Object[] handlers = NO_HANDLERS;
+	// priorities of entries pushed with a non-zero one, written under writeLock
+	private final Map<HandlerPool, Integer> priorities = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a new ConcurrentPoolPipeline.
+	 */
+	public ConcurrentPoolPipeline() {
+		super(List.of()); // storage is in entries
+	}
+
+	/**
+	 * Pushes the handler to the back of the list.<br>
+	 * It is executed in reverse order, so the handler will be the first executed.
+	 * @param pool HandlerPool
+	 * @param obj handler
+	 */
+	@Override
+	public void push(HandlerPool pool, T obj) {
+		doPush(pool, obj, false);
+	}
+
+	/**
+	 * Pushes the handler to the front of the list.<br>
+	 * It is executed in reverse order, so the handler will be the last executed.
+	 * @param pool HandlerPool
+	 * @param obj handler
+	 */
+	@Override
+	public void pushLast(HandlerPool pool, T obj) {
+		doPush(pool, obj, true);
+	}
+
+	/**
+	 * Pushes the handler ordered by priority: it is executed after handlers with a higher priority
+	 * and before ones with a lower or the same priority.
+	 * Handlers pushed with {@link #push(HandlerPool, Object)} or {@link #pushLast(HandlerPool, Object)}
+	 * count as a priority of zero, but they are still added to their end of the list.
+	 * @param pool HandlerPool
+	 * @param obj handler
+	 * @param priority priority, higher is executed first
+	 */
+	@Override
+	public void push(HandlerPool pool, T obj, int priority) {
+		insert(pool, obj, false, true, priority);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getPriority(HandlerPool pool) {
+		Integer priority = priorities.get(pool);
+		return priority == null ? 0 : priority;
+	}
+
+	@Override
+	protected void doPush(HandlerPool pool, T obj, boolean reverse) {
+		insert(pool, obj, reverse, false, 0);
+	}
+
+	private void insert(HandlerPool pool, T obj, boolean reverse, boolean prioritized, int priority) {
+		PoolEntry<T> entry = new PoolEntry<>(pool, obj);
+		PoolEntry<T> replaced;
+
+		synchronized(writeLock) {
+			PoolEntry<T>[] current = this.entries;
+			int index = indexOf(current, pool);
+			replaced = index < 0 ? null : current[index];
+			if(replaced != null) {
+				priorities.remove(pool);
+			}
+
+			// positions below are in current without the replaced entry
+			int size = current.length - (index < 0 ? 0 : 1);
+			int at = reverse ? 0 : size;
+			if(prioritized) {
+				// after every handler with a lower or the same priority, so it executes before them
+				while(at > 0 && getPriority(current[skip(at - 1, index)].pool()) > priority) {
+					at--;
+				}
+				if(priority != 0) {
+					priorities.put(pool, priority);
+				}
+			}
+
+			PoolEntry<T>[] result = emptyEntries(size + 1);
+			for(int i = 0; i < at; i++) {
+				result[i] = current[skip(i, index)];
+			}
+			result[at] = entry;
+			for(int i = at; i < size; i++) {
+				result[i + 1] = current[skip(i, index)];
+			}
+
+			if(replaced == null) {
+				pool.getPushedStacks().add(this);
+			}
+			publish(result);
+		}
+
+		if(replaced != null) {
+			if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPop(this, pool);
+			this.onPop(replaced);
+		}
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPush(this, pool);
+		this.onPush(entry);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean pop(HandlerPool pool) {
+		return popAndGet(pool) != null;
+	}
+
+	/**
+	 * Removes the {@link HandlerPool}'s push from this pushable,
+	 * does nothing if the HandlerPool hasn't pushed this.
+	 * @param pool HandlerPool
+	 * @return removed {@link PoolEntry} or null if not pushed by pool
+	 */
+	@Nullable
+	@Override
+	public PoolEntry<T> popAndGet(HandlerPool pool) {
+		if(indexOf(this.entries, pool) < 0) return null;
+
+		PoolEntry<T> removed;
+		synchronized(writeLock) {
+			PoolEntry<T>[] current = this.entries;
+			int index = indexOf(current, pool);
+			if(index < 0) return null;
+
+			removed = current[index];
+			PoolEntry<T>[] result = emptyEntries(current.length - 1);
+			System.arraycopy(current, 0, result, 0, index);
+			System.arraycopy(current, index + 1, result, index, current.length - index - 1);
+
+			priorities.remove(pool);
+			pool.getPushedStacks().remove(this);
+			publish(result);
+		}
+
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPop(this, pool);
+		this.onPop(removed);
+		return removed;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public PoolEntry<T> getPushEntry(HandlerPool pool) {
+		PoolEntry<T>[] current = this.entries;
+		int index = indexOf(current, pool);
+		return index < 0 ? null : current[index];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getPushCount() {
+		return entries.length;
+	}
+
+	/**
+	 * @return unmodifiable snapshot of the entries
+	 */
+	@Override
+	public List<PoolEntry<T>> getCollection() {
+		return List.of(entries);
+	}
+
+	/**
+	 * @return snapshot of the handlers
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<T> getEntries() {
+		return (List<T>) List.of(handlers);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T getEntry(int index) {
+		return (T) handlers[index];
+	}
+
+	/**
+	 * Calls the action with every handler in a snapshot taken when this is called.
+	 * @param action action to call
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEachEntry(@NonNull Consumer<? super T> action) {
+		for(Object handler : handlers) {
+			action.accept((T) handler);
+		}
+	}
+
+	@Override
+	protected Object[] getHandlers() {
+		return handlers;
+	}
+
+	@Override
+	public void invalidateHandlers() {
+		// handlers are rebuilt on every change
+	}
+
+	@Override
+	protected PipelineContext getContext(@NonNull T bottomEntry, boolean reversed) {
+		return createContext(handlers, bottomEntry, reversed);
+	}
+
+	@Override
+	protected void releaseContext(PipelineContext context) {
+		// contexts aren't shared between executions, and there is no depth to track
+		commitEvent(context, 1);
+		if(PoolMetrics.ENABLED) recordExecution(context, 1);
+	}
+
+	private void publish(PoolEntry<T>[] entries) {
+		Object[] handlers = entries.length == 0 ? NO_HANDLERS : new Object[entries.length];
+		for(int i = 0; i < entries.length; i++) {
+			handlers[i] = entries[i].obj();
+		}
+
+		// handlers first: a reader seeing the new entries must not see old handlers
+		this.handlers = handlers;
+		this.entries = entries;
+	}
+
+	// index in entries of the i-th entry when the one at skipped is left out
+	private static int skip(int i, int skipped) {
+		return skipped >= 0 && i >= skipped ? i + 1 : i;
+	}
+
+	private static int indexOf(PoolEntry<?>[] entries, HandlerPool pool) {
+		for(int i = 0; i < entries.length; i++) {
+			if(entries[i].pool() == pool) return i;
+		}
+		return -1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> PoolEntry<T>[] emptyEntries() {
+		return (PoolEntry<T>[]) NO_ENTRIES;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> PoolEntry<T>[] emptyEntries(int length) {
+		return length == 0 ? emptyEntries() : (PoolEntry<T>[]) new PoolEntry<?>[length];
+	}
+}
@@ -0,0 +1,77 @@
+package me.thosea.flowpool.concurrent;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.jfr.PushableCallbackEvent;
+import me.thosea.flowpool.pushable.PoolStack;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Thread-safe {@link PoolStack}.
+ * First-in, first-iterated pushable managed by {@link HandlerPool}s.
+ * @param <T> type
+ * @see AbstractConcurrentPoolCollection
+ */
+@Setter
+@Getter @Accessors(fluent = true, chain = true)
+public class ConcurrentPoolStack<T> extends AbstractConcurrentPoolCollection<T> {
+	private volatile BiConsumer<ConcurrentPoolStack<T>, PoolEntry<T>> pushCallback;
+	private volatile BiConsumer<ConcurrentPoolStack<T>, PoolEntry<T>> popCallback;
+
+	/**
+	 * Constructs a new ConcurrentPoolStack.
+	 */
+	public ConcurrentPoolStack() {}
+
+	/**
+	 * Constructs a new ConcurrentPoolStack with the specified initial capacity.
+	 * @param initialCapacity initial capacity
+	 */
+	public ConcurrentPoolStack(int initialCapacity) {
+		super(initialCapacity);
+	}
+
+	/**
+	 * Gets the object that was last {@code push}ed onto this pushable,
+	 * or null if there is none.
+	 * @return {@code pushable.peek().obj()}
+	 */
+	public T peek() {
+		PoolEntry<T> entry = this.firstEntry();
+		return entry == null ? null : entry.obj();
+	}
+
+	/**
+	 * Pushes the object to the front of the pushable.
+	 * It will be the object returned by {@link #peek()} until another object is pushed.
+	 * @param pool HandlerPool
+	 * @param obj object to push
+	 */
+	@Override
+	public void push(HandlerPool pool, T obj) {
+		doPush(pool, obj, true);
+	}
+
+	/**
+	 * Pushes the object to the back of the pushable.
+	 * @param pool HandlerPool
+	 * @param obj object to push
+	 */
+	public void pushLast(HandlerPool pool, T obj) {
+		doPush(pool, obj, false);
+	}
+
+	@Override
+	protected void onPush(PoolEntry<T> entry) {
+		PushableCallbackEvent.call(this, true, this.pushCallback, entry);
+	}
+
+	@Override
+	protected void onPop(PoolEntry<T> entry) {
+		PushableCallbackEvent.call(this, false, this.popCallback, entry);
+	}
+}
@@ -0,0 +1,135 @@
+package me.thosea.flowpool.concurrent;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.IPoolPushable;
+import me.thosea.flowpool.jfr.PushableCallbackEvent;
+import me.thosea.flowpool.metrics.PoolMetrics;
+import me.thosea.flowpool.pushable.AbstractPoolCollection;
+import me.thosea.flowpool.pushable.PoolToggle;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Thread-safe {@link PoolToggle}.
+ * Only holds a Set of the {@link HandlerPool}s that pushed it.<br>
+ * Pushes and pops of the same pool are linearizable, pools don't block each other.
+ * @see ConcurrentHandlerPool
+ */
+public class ConcurrentPoolToggle implements IPoolPushable<Void> {
+	private final ConcurrentHashMap<HandlerPool, Boolean> pushedBy;
+
+	@Accessors(fluent = true)
+	@Getter @Setter
+	private volatile BiConsumer<ConcurrentPoolToggle, HandlerPool> pushCallback;
+	@Accessors(fluent = true)
+	@Getter @Setter
+	private volatile BiConsumer<ConcurrentPoolToggle, HandlerPool> popCallback;
+
+	/**
+	 * Constructs a new ConcurrentPoolToggle with an initial capacity of {@link AbstractPoolCollection#DEFAULT_COLLECTION_SIZE}.
+	 */
+	public ConcurrentPoolToggle() {
+		this(AbstractPoolCollection.DEFAULT_COLLECTION_SIZE);
+	}
+
+	/**
+	 * Constructs a new ConcurrentPoolToggle with the specified initial capacity.
+	 * @param initialCapacity initial capacity
+	 */
+	public ConcurrentPoolToggle(int initialCapacity) {
+		this.pushedBy = new ConcurrentHashMap<>(initialCapacity);
+	}
+
+	/**
+	 * The passed object will be ignored.
+	 * Use {@link #push(HandlerPool)} instead.
+	 * @param pool HandlerPool
+	 * @param obj object to push
+	 * @deprecated use {@link #push(HandlerPool)} instead
+	 */
+	@Override
+	@Deprecated
+	public void push(HandlerPool pool, Void obj) {
+		this.push(pool);
+	}
+
+	/**
+	 * Marks this toggle as pushed by the {@link HandlerPool#current() current pool}, see {@link #push(HandlerPool)}.
+	 * @throws IllegalStateException if not in a {@link HandlerPool#runScoped(Runnable) scope}
+	 */
+	public void push() {
+		this.push(HandlerPool.current());
+	}
+
+	/**
+	 * Marks this toggle as pushed by the {@link HandlerPool}.<br>
+	 * {@link #isPushed()} and {@link HandlerPool#isPushing(IPoolPushable)} will return true,
+	 * and if the pool didn't push this already, {@link #getPushCount()} will increase.
+	 * @param pool HandlerPool
+	 */
+	public void push(HandlerPool pool) {
+		if(pushedBy.containsKey(pool)) return;
+
+		boolean[] added = new boolean[1];
+		pushedBy.computeIfAbsent(pool, key -> {
+			key.getPushedStacks().add(this);
+			added[0] = true;
+			return Boolean.TRUE;
+		});
+
+		if(!added[0]) return;
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPush(this, pool);
+
+		PushableCallbackEvent.call(this, true, this.pushCallback, pool);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean pop(HandlerPool pool) {
+		if(!pushedBy.containsKey(pool)) return false;
+
+		boolean[] removed = new boolean[1];
+		pushedBy.computeIfPresent(pool, (key, value) -> {
+			key.getPushedStacks().remove(this);
+			removed[0] = true;
+			return null;
+		});
+
+		if(!removed[0]) return false;
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPop(this, pool);
+
+		PushableCallbackEvent.call(this, false, this.popCallback, pool);
+
+		return true;
+	}
+
+	/**
+	 * @return live view of the pools that pushed this, weakly consistent
+	 */
+	public Set<HandlerPool> pushedBy() {
+		return pushedBy.keySet();
+	}
+
+	/**
+	 * @return the amount of pools that pushed this
+	 */
+	@Override
+	public int getPushCount() {
+		return pushedBy.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isPushed() {
+		return !pushedBy.isEmpty();
+	}
+}
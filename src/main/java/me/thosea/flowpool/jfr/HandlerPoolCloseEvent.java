@@ -0,0 +1,57 @@
+package me.thosea.flowpool.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import me.thosea.flowpool.HandlerPool;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * JFR event for {@link HandlerPool#close()}, including close callbacks and pops.
+ */
+@Name("me.thosea.flowpool.HandlerPoolClose")
+@Label("HandlerPool Close")
+@Category("FlowPool")
+@Description("Close of a HandlerPool")
+public class HandlerPoolCloseEvent extends Event {
+	private static final HandlerPoolCloseEvent PROBE = new HandlerPoolCloseEvent();
+
+	@Label("Pool Type")
+	public String poolType;
+
+	@Label("Callbacks Run")
+	public int callbacksRun;
+
+	@Label("Stacks Popped")
+	public int stacksPopped;
+
+	/**
+	 * @return started event, or null if the event isn't being recorded
+	 */
+	@Nullable
+	public static HandlerPoolCloseEvent start() {
+		if(!PROBE.isEnabled()) return null;
+
+		HandlerPoolCloseEvent event = new HandlerPoolCloseEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends and commits the event.
+	 * @param pool closed pool
+	 * @param callbacksRun amount of close callbacks ran
+	 * @param stacksPopped amount of stacks popped
+	 */
+	public void end(HandlerPool pool, int callbacksRun, int stacksPopped) {
+		this.end();
+		if(this.shouldCommit()) {
+			this.poolType = pool.getClass().getName();
+			this.callbacksRun = callbacksRun;
+			this.stacksPopped = stacksPopped;
+			this.commit();
+		}
+	}
+}
\ No newline at end of file
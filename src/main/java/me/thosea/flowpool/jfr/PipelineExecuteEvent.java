@@ -0,0 +1,64 @@
+package me.thosea.flowpool.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import me.thosea.flowpool.pushable.PoolPipeline;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * JFR event for one {@link PoolPipeline} execution, from the initial caller to its return.
+ */
+@Name("me.thosea.flowpool.PipelineExecute")
+@Label("Pipeline Execute")
+@Category("FlowPool")
+@Description("Execution of a PoolPipeline")
+public class PipelineExecuteEvent extends Event {
+	private static final PipelineExecuteEvent PROBE = new PipelineExecuteEvent();
+
+	@Label("Pipeline Type")
+	public String pipelineType;
+
+	@Label("Handler Count")
+	@Description("Handlers in the pipeline when execution started")
+	public int handlerCount;
+
+	@Label("Depth")
+	@Description("Execution depth, 1 if not nested")
+	public int depth;
+
+	@Label("Reversed")
+	public boolean reversed;
+
+	/**
+	 * @return started event, or null if the event isn't being recorded
+	 */
+	@Nullable
+	public static PipelineExecuteEvent start() {
+		if(!PROBE.isEnabled()) return null;
+
+		PipelineExecuteEvent event = new PipelineExecuteEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends and commits the event.
+	 * @param pipeline executed pipeline
+	 * @param handlerCount handlers executed over
+	 * @param depth execution depth
+	 * @param reversed true if execution was reversed
+	 */
+	public void end(PoolPipeline<?, ?> pipeline, int handlerCount, int depth, boolean reversed) {
+		this.end();
+		if(this.shouldCommit()) {
+			this.pipelineType = pipeline.getClass().getName();
+			this.handlerCount = handlerCount;
+			this.depth = depth;
+			this.reversed = reversed;
+			this.commit();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package me.thosea.flowpool.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import me.thosea.flowpool.IPoolPushable;
+import me.thosea.flowpool.metrics.PoolMetrics;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.BiConsumer;
+
+/**
+ * JFR event for a push or pop callback of a pushable.
+ */
+@Name("me.thosea.flowpool.PushableCallback")
+@Label("Pushable Callback")
+@Category("FlowPool")
+@Description("Push or pop callback of a pushable")
+public class PushableCallbackEvent extends Event {
+	private static final PushableCallbackEvent PROBE = new PushableCallbackEvent();
+
+	@Label("Pushable Type")
+	public String pushableType;
+
+	@Label("Push")
+	@Description("True for a push callback, false for a pop callback")
+	public boolean push;
+
+	/**
+	 * Calls a push or pop callback, recording it as an event and in {@link PoolMetrics}.
+	 * Does nothing if the callback is null.
+	 * @param pushable pushable owning the callback, passed to it
+	 * @param push true for a push callback, false for a pop callback
+	 * @param callback callback, may be null
+	 * @param arg second argument of the callback
+	 * @param <P> pushable type
+	 * @param <A> argument type
+	 */
+	public static <P extends IPoolPushable<?>, A> void call(P pushable, boolean push,
+	                                                        @Nullable BiConsumer<? super P, ? super A> callback,
+	                                                        A arg) {
+		if(callback == null) return;
+
+		PushableCallbackEvent event = start();
+		callback.accept(pushable, arg);
+		if(event != null) event.end(pushable, push);
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onCallback(pushable);
+	}
+
+	/**
+	 * Runs a push or pop callback that doesn't fit {@link #call(IPoolPushable, boolean, BiConsumer, Object)},
+	 * recording it as an event and in {@link PoolMetrics}.
+	 * @param pushable pushable owning the callback
+	 * @param push true for a push callback, false for a pop callback
+	 * @param callback calls the callback
+	 */
+	public static void run(IPoolPushable<?> pushable, boolean push, Runnable callback) {
+		PushableCallbackEvent event = start();
+		callback.run();
+		if(event != null) event.end(pushable, push);
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onCallback(pushable);
+	}
+
+	/**
+	 * @return started event, or null if the event isn't being recorded
+	 */
+	@Nullable
+	public static PushableCallbackEvent start() {
+		if(!PROBE.isEnabled()) return null;
+
+		PushableCallbackEvent event = new PushableCallbackEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends and commits the event.
+	 * @param pushable pushable owning the callback
+	 * @param push true for a push callback, false for a pop callback
+	 */
+	public void end(IPoolPushable<?> pushable, boolean push) {
+		this.end();
+		if(this.shouldCommit()) {
+			this.pushableType = pushable.getClass().getName();
+			this.push = push;
+			this.commit();
+		}
+	}
+}
\ No newline at end of file
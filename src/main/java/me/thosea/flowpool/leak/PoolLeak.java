@@ -0,0 +1,34 @@
+package me.thosea.flowpool.leak;
+
+import me.thosea.flowpool.HandlerPool;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link PoolLease} that became unreachable without being closed.
+ * @param pool leased pool
+ * @param createdAt where the lease was created, or null if it wasn't sampled
+ * @param pushedStacks amount of stacks the pool was still pushing when the leak was found
+ * @param closed true if the pool was closed by {@link PoolLeakDetector#setAutoClose(boolean) auto-close}
+ */
+public record PoolLeak(HandlerPool pool, @Nullable Throwable createdAt, int pushedStacks, boolean closed) {
+	/**
+	 * @return description of the leak, with the creation stack trace if sampled
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("HandlerPool lease was never closed, ")
+				.append(pushedStacks).append(" stacks still pushed")
+				.append(closed ? ", closed automatically" : "");
+
+		if(createdAt == null) {
+			builder.append(". Lease creation wasn't sampled, see PoolLeakDetector.setSamplingInterval");
+		} else {
+			builder.append(". Lease created at:");
+			for(StackTraceElement element : createdAt.getStackTrace()) {
+				builder.append("\n\tat ").append(element);
+			}
+		}
+
+		return builder.toString();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+package me.thosea.flowpool.leak;
+
+import lombok.NonNull;
+import me.thosea.flowpool.HandlerPool;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Finds {@link PoolLease}s that became unreachable without being closed.<p>
+ * Detection is off by default. It is on while the sampling interval is above zero or auto-close is on,
+ * both can be set at startup with the {@code flowpool.leak.sampling} and {@code flowpool.leak.autoClose}
+ * system properties, or changed at runtime.
+ * <ul>
+ *     <li>Every lease created while on is tracked with a phantom reference, which is cheap.</li>
+ *     <li>Every {@link #setSamplingInterval(int) n-th} lease also captures a stack trace of where it was created,
+ *     which is the expensive part. An interval of 1 samples every lease.</li>
+ *     <li>With {@link #setAutoClose(boolean) auto-close}, leaked pools are closed, popping everything they pushed.</li>
+ * </ul>
+ * Leaks are found on {@link #drain()}, which is also called every time a lease is created.
+ * Leaked pools are closed by the thread calling it, so only use auto-close if the pushables the leases
+ * push to are used from that thread, or are concurrent ones.
+ * Leaks are passed to the {@link #setReporter(Consumer) reporter}, which prints them to stderr by default.
+ */
+public final class PoolLeakDetector {
+	private static final ReferenceQueue<PoolLease> QUEUE = new ReferenceQueue<>();
+	// keeps the trackers themselves reachable until their lease is closed or found
+	private static final Set<Tracker> TRACKERS = ConcurrentHashMap.newKeySet();
+	private static final AtomicLong CREATED = new AtomicLong();
+
+	private static volatile int samplingInterval = Integer.getInteger("flowpool.leak.sampling", 0);
+	private static volatile boolean autoClose = Boolean.getBoolean("flowpool.leak.autoClose");
+	private static volatile Consumer<PoolLeak> reporter = leak -> System.err.println(leak);
+
+	private PoolLeakDetector() {}
+
+	/**
+	 * @return true if new leases are tracked
+	 */
+	public static boolean isEnabled() {
+		return samplingInterval > 0 || autoClose;
+	}
+
+	/**
+	 * @return interval of leases capturing their creation stack trace, zero if none do
+	 */
+	public static int getSamplingInterval() {
+		return samplingInterval;
+	}
+
+	/**
+	 * Sets how often leases capture the stack trace of where they were created.
+	 * @param interval 1 to capture it for every lease, n for every n-th lease, 0 to never capture it
+	 * @throws IllegalArgumentException if the interval is negative
+	 */
+	public static void setSamplingInterval(int interval) {
+		if(interval < 0) {
+			throw new IllegalArgumentException("Negative sampling interval: " + interval);
+		}
+		samplingInterval = interval;
+	}
+
+	/**
+	 * @return true if leaked pools are closed
+	 */
+	public static boolean isAutoClose() {
+		return autoClose;
+	}
+
+	/**
+	 * @param autoClose true to close leaked pools when they are found
+	 */
+	public static void setAutoClose(boolean autoClose) {
+		PoolLeakDetector.autoClose = autoClose;
+	}
+
+	/**
+	 * @param reporter receives found leaks
+	 */
+	public static void setReporter(@NonNull Consumer<PoolLeak> reporter) {
+		PoolLeakDetector.reporter = Objects.requireNonNull(reporter);
+	}
+
+	/**
+	 * @return amount of leases tracked and not closed yet, including leaked ones that weren't found yet
+	 */
+	public static int getTrackedCount() {
+		return TRACKERS.size();
+	}
+
+	/**
+	 * Reports leases that the garbage collector found unreachable since the last call,
+	 * closing their pools if auto-close is on.
+	 * @return amount of leaks found
+	 */
+	public static int drain() {
+		int found = 0;
+		Reference<? extends PoolLease> reference;
+		while((reference = QUEUE.poll()) != null) {
+			Tracker tracker = (Tracker) reference;
+			if(!TRACKERS.remove(tracker)) continue; // closed while being collected
+
+			HandlerPool pool = tracker.pool;
+			int pushed = pool.getPushedStacks().size();
+			boolean close = autoClose;
+			if(close) {
+				pool.close();
+			}
+
+			found++;
+			reporter.accept(new PoolLeak(pool, tracker.createdAt, pushed, close));
+		}
+
+		return found;
+	}
+
+	@Nullable
+	static Tracker track(PoolLease lease, HandlerPool pool) {
+		if(!isEnabled()) return null;
+
+		drain();
+
+		int interval = samplingInterval;
+		Throwable createdAt = interval > 0 && CREATED.getAndIncrement() % interval == 0
+				? new Throwable("PoolLease creation")
+				: null;
+
+		Tracker tracker = new Tracker(lease, pool, createdAt);
+		TRACKERS.add(tracker);
+		return tracker;
+	}
+
+	static final class Tracker extends PhantomReference<PoolLease> {
+		private final HandlerPool pool;
+		@Nullable private final Throwable createdAt;
+
+		private Tracker(PoolLease lease, HandlerPool pool, @Nullable Throwable createdAt) {
+			super(lease, QUEUE);
+			this.pool = pool;
+			this.createdAt = createdAt;
+		}
+
+		void untrack() {
+			TRACKERS.remove(this);
+			this.clear();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package me.thosea.flowpool.leak;
+
+import lombok.NonNull;
+import me.thosea.flowpool.HandlerPool;
+
+/**
+ * Owner of a {@link HandlerPool}, tracked by {@link PoolLeakDetector}.<br>
+ * Pushables reference pools strongly, so a pool that is never closed stays pushed forever.
+ * Hold a lease instead of the pool: when the lease becomes unreachable without being {@link #close() closed},
+ * the detector reports it and can close the pool.
+ * Don't store the lease where the pool's pushables can reach it, or it will never become unreachable.
+ * <pre>{@code
+ * try(PoolLease lease = PoolLease.create()) {
+ *     stack.push(lease.pool(), value);
+ *     // ...
+ * }
+ * }</pre>
+ * Leases are only tracked while the detector is {@link PoolLeakDetector#isEnabled() enabled},
+ * otherwise they are a plain wrapper.
+ */
+public final class PoolLease implements AutoCloseable {
+	private final HandlerPool pool;
+	private final PoolLeakDetector.Tracker tracker; // null if not tracked
+
+	private PoolLease(HandlerPool pool) {
+		this.pool = pool;
+		this.tracker = PoolLeakDetector.track(this, pool);
+	}
+
+	/**
+	 * @return new lease of a new pool
+	 */
+	public static PoolLease create() {
+		return new PoolLease(new HandlerPool());
+	}
+
+	/**
+	 * @param pool pool to lease, shouldn't be leased already
+	 * @return new lease of the pool
+	 */
+	public static PoolLease of(@NonNull HandlerPool pool) {
+		return new PoolLease(pool);
+	}
+
+	/**
+	 * @return leased pool
+	 */
+	public HandlerPool pool() {
+		return pool;
+	}
+
+	/**
+	 * Closes the pool and stops tracking the lease.
+	 * The lease and pool can still be used after, but the lease isn't tracked anymore.
+	 */
+	@Override
+	public void close() {
+		if(tracker != null) {
+			tracker.untrack();
+		}
+		pool.close();
+	}
+}
\ No newline at end of file
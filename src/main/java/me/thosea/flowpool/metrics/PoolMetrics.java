@@ -0,0 +1,43 @@
+package me.thosea.flowpool.metrics;
+
+import lombok.NonNull;
+
+import java.util.Objects;
+
+/**
+ * Switch and recorder for instrumentation.<p>
+ * Instrumentation is off unless the JVM is started with {@code -Dflowpool.metrics=true}.
+ * The switch is a static final, so when it is off the JIT removes the hooks entirely.
+ * When it is on, events go to {@link #recorder()}, which does nothing until one is set:
+ * <pre>{@code
+ * PoolMetricsRegistry registry = new PoolMetricsRegistry();
+ * PoolMetrics.setRecorder(registry);
+ * // ...
+ * System.out.println(registry.dump(10));
+ * }</pre>
+ */
+public final class PoolMetrics {
+	/**
+	 * True if the {@code flowpool.metrics} system property was true at startup.
+	 */
+	public static final boolean ENABLED = Boolean.getBoolean("flowpool.metrics");
+
+	private static volatile PoolRecorder recorder = PoolRecorder.NO_OP;
+
+	private PoolMetrics() {}
+
+	/**
+	 * @return current recorder, {@link PoolRecorder#NO_OP} by default
+	 */
+	public static PoolRecorder recorder() {
+		return recorder;
+	}
+
+	/**
+	 * Sets the recorder receiving events. Has no effect if {@link #ENABLED} is false.
+	 * @param recorder recorder, use {@link PoolRecorder#NO_OP} to stop recording
+	 */
+	public static void setRecorder(@NonNull PoolRecorder recorder) {
+		PoolMetrics.recorder = Objects.requireNonNull(recorder);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,181 @@
+package me.thosea.flowpool.metrics;
+
+import lombok.Getter;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.IPoolPushable;
+import me.thosea.flowpool.pushable.PoolPipeline;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link PoolRecorder} keeping counters per pushable, to find the hottest ones.<br>
+ * Pushables are held weakly, so their counters go away with them.
+ * Thread-safe, though it synchronizes on every event.
+ */
+public class PoolMetricsRegistry implements PoolRecorder {
+	private final Map<IPoolPushable<?>, PushableStats> stats = new WeakHashMap<>();
+
+	private long closes;
+	private long stacksPoppedByClose;
+
+	@Override
+	public synchronized void onPush(IPoolPushable<?> pushable, HandlerPool pool) {
+		PushableStats stats = statsOf(pushable);
+		stats.pushes++;
+		stats.maxPushCount = Math.max(stats.maxPushCount, pushable.getPushCount());
+	}
+
+	@Override
+	public synchronized void onPop(IPoolPushable<?> pushable, HandlerPool pool) {
+		statsOf(pushable).pops++;
+	}
+
+	@Override
+	public synchronized void onCallback(IPoolPushable<?> pushable) {
+		statsOf(pushable).callbacks++;
+	}
+
+	@Override
+	public synchronized void onClose(HandlerPool pool, int popped) {
+		closes++;
+		stacksPoppedByClose += popped;
+	}
+
+	@Override
+	public synchronized void onExecute(PoolPipeline<?, ?> pipeline, int depth, long nanos) {
+		PushableStats stats = statsOf(pipeline);
+		stats.executions++;
+		stats.executionNanos += nanos;
+		stats.maxExecutionNanos = Math.max(stats.maxExecutionNanos, nanos);
+		stats.maxDepth = Math.max(stats.maxDepth, depth);
+	}
+
+	/**
+	 * @return amount of {@link HandlerPool#close()} calls
+	 */
+	public synchronized long getCloses() {
+		return closes;
+	}
+
+	/**
+	 * @return amount of stacks popped by {@link HandlerPool#close()} calls
+	 */
+	public synchronized long getStacksPoppedByClose() {
+		return stacksPoppedByClose;
+	}
+
+	/**
+	 * @param pushable pushable
+	 * @return copy of the counters of the pushable, zero if nothing was recorded
+	 */
+	public synchronized PushableStats get(IPoolPushable<?> pushable) {
+		PushableStats result = stats.get(pushable);
+		return result == null ? new PushableStats(pushable) : result.copy();
+	}
+
+	/**
+	 * @param n maximum amount of pushables
+	 * @param metric metric to sort by, like {@link PushableStats#getActivity()}
+	 * @return copies of the counters of the n pushables with the highest metric, highest first
+	 */
+	public synchronized List<PushableStats> top(int n, ToLongFunction<PushableStats> metric) {
+		List<PushableStats> result = new ArrayList<>(stats.size());
+		for(PushableStats value : stats.values()) {
+			result.add(value.copy());
+		}
+
+		result.sort(Comparator.comparingLong(metric).reversed());
+		return result.size() > n ? new ArrayList<>(result.subList(0, n)) : result;
+	}
+
+	/**
+	 * @param n maximum amount of pushables
+	 * @return the n pushables with the most activity, one per line
+	 */
+	public String dump(int n) {
+		StringBuilder builder = new StringBuilder();
+		for(PushableStats value : top(n, PushableStats::getActivity)) {
+			builder.append(value).append('\n');
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Clears every counter.
+	 */
+	public synchronized void reset() {
+		stats.clear();
+		closes = 0;
+		stacksPoppedByClose = 0;
+	}
+
+	private PushableStats statsOf(IPoolPushable<?> pushable) {
+		return stats.computeIfAbsent(pushable, PushableStats::new);
+	}
+
+	/**
+	 * Counters of a single pushable.
+	 */
+	@Getter
+	public static final class PushableStats {
+		/**
+		 * Name of the pushable, its class and identity hash.
+		 * The pushable itself isn't kept so stats don't leak it.
+		 */
+		private final String name;
+		private long pushes;
+		private long pops;
+		private long callbacks;
+		private int maxPushCount;
+		private long executions;
+		private long executionNanos;
+		private long maxExecutionNanos;
+		private int maxDepth;
+
+		private PushableStats(IPoolPushable<?> pushable) {
+			this(pushable.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(pushable)));
+		}
+
+		private PushableStats(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * @return pushes, pops and executions added together
+		 */
+		public long getActivity() {
+			return pushes + pops + executions;
+		}
+
+		private PushableStats copy() {
+			PushableStats copy = new PushableStats(name);
+			copy.pushes = pushes;
+			copy.pops = pops;
+			copy.callbacks = callbacks;
+			copy.maxPushCount = maxPushCount;
+			copy.executions = executions;
+			copy.executionNanos = executionNanos;
+			copy.maxExecutionNanos = maxExecutionNanos;
+			copy.maxDepth = maxDepth;
+			return copy;
+		}
+
+		@Override
+		public String toString() {
+			String result = name + " pushes=" + pushes + " pops=" + pops
+					+ " callbacks=" + callbacks + " maxPushCount=" + maxPushCount;
+			if(executions != 0) {
+				result += " executions=" + executions
+						+ " avgNanos=" + (executionNanos / executions)
+						+ " maxNanos=" + maxExecutionNanos
+						+ " maxDepth=" + maxDepth;
+			}
+			return result;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package me.thosea.flowpool.metrics;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.IPoolPushable;
+import me.thosea.flowpool.pushable.PoolPipeline;
+
+/**
+ * Receives instrumentation events from pushables and {@link HandlerPool}s.
+ * Only called if {@link PoolMetrics#ENABLED} is true.
+ * Implementations must be thread-safe if pushables are used from multiple threads.
+ * @see PoolMetricsRegistry
+ */
+public interface PoolRecorder {
+	/**
+	 * Recorder that does nothing.
+	 */
+	PoolRecorder NO_OP = new PoolRecorder() {};
+
+	/**
+	 * Called after a pushable was pushed.
+	 * @param pushable pushable
+	 * @param pool pool that pushed it
+	 */
+	default void onPush(IPoolPushable<?> pushable, HandlerPool pool) {}
+
+	/**
+	 * Called after a pushable was popped.
+	 * @param pushable pushable
+	 * @param pool pool that popped it
+	 */
+	default void onPop(IPoolPushable<?> pushable, HandlerPool pool) {}
+
+	/**
+	 * Called after a push or pop callback of a pushable ran.
+	 * @param pushable pushable owning the callback
+	 */
+	default void onCallback(IPoolPushable<?> pushable) {}
+
+	/**
+	 * Called after {@link HandlerPool#close()}.
+	 * @param pool closed pool
+	 * @param popped amount of stacks popped by the close
+	 */
+	default void onClose(HandlerPool pool, int popped) {}
+
+	/**
+	 * Called after a pipeline finished executing.
+	 * @param pipeline pipeline
+	 * @param depth execution depth, 1 if not nested
+	 * @param nanos time the execution took
+	 */
+	default void onExecute(PoolPipeline<?, ?> pipeline, int depth, long nanos) {}
+}
\ No newline at end of file
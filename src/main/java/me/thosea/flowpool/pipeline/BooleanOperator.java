@@ -0,0 +1,12 @@
+package me.thosea.flowpool.pipeline;
+
+import me.thosea.flowpool.pushable.PoolPipeline;
+
+/**
+ * One {@code boolean} arg and a {@code boolean} return, without boxing.
+ * For use with {@link PoolPipeline#executeBoolean}.
+ */
+@FunctionalInterface
+public interface BooleanOperator {
+	boolean call(boolean arg, PoolPipeline<BooleanOperator, Boolean>.PipelineContext ctx);
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package me.thosea.flowpool.pipeline;
+
+import me.thosea.flowpool.pushable.PoolPipeline;
+
+/**
+ * One {@code double} arg and a {@code double} return, without boxing.
+ * For use with {@link PoolPipeline#executeDouble}.
+ */
+@FunctionalInterface
+public interface DoubleOperator {
+	double call(double arg, PoolPipeline<DoubleOperator, Double>.PipelineContext ctx);
+}
\ No newline at end of file
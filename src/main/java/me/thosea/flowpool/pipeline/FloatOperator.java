@@ -0,0 +1,12 @@
+package me.thosea.flowpool.pipeline;
+
+import me.thosea.flowpool.pushable.PoolPipeline;
+
+/**
+ * One {@code float} arg and a {@code float} return, without boxing.
+ * For use with {@link PoolPipeline#executeFloat}.
+ */
+@FunctionalInterface
+public interface FloatOperator {
+	float call(float arg, PoolPipeline<FloatOperator, Float>.PipelineContext ctx);
+}
\ No newline at end of file
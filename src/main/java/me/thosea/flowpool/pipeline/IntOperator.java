@@ -0,0 +1,12 @@
+package me.thosea.flowpool.pipeline;
+
+import me.thosea.flowpool.pushable.PoolPipeline;
+
+/**
+ * One {@code int} arg and a {@code int} return, without boxing.
+ * For use with {@link PoolPipeline#executeInt}.
+ */
+@FunctionalInterface
+public interface IntOperator {
+	int call(int arg, PoolPipeline<IntOperator, Integer>.PipelineContext ctx);
+}
\ No newline at end of file
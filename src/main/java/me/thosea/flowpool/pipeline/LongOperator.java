@@ -0,0 +1,12 @@
+package me.thosea.flowpool.pipeline;
+
+import me.thosea.flowpool.pushable.PoolPipeline;
+
+/**
+ * One {@code long} arg and a {@code long} return, without boxing.
+ * For use with {@link PoolPipeline#executeLong}.
+ */
+@FunctionalInterface
+public interface LongOperator {
+	long call(long arg, PoolPipeline<LongOperator, Long>.PipelineContext ctx);
+}
\ No newline at end of file
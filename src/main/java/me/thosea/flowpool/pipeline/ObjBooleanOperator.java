@@ -0,0 +1,13 @@
+package me.thosea.flowpool.pipeline;
+
+import me.thosea.flowpool.pushable.PoolPipeline;
+
+/**
+ * An object arg, a {@code boolean} arg and a {@code boolean} return, without boxing.
+ * For use with {@link PoolPipeline#executeBoolean}.
+ * @param <T> arg 1
+ */
+@FunctionalInterface
+public interface ObjBooleanOperator<T> {
+	boolean call(T arg1, boolean arg2, PoolPipeline<ObjBooleanOperator<T>, Boolean>.PipelineContext ctx);
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package me.thosea.flowpool.pipeline;
+
+import me.thosea.flowpool.pushable.PoolPipeline;
+
+/**
+ * An object arg, a {@code double} arg and a {@code double} return, without boxing.
+ * For use with {@link PoolPipeline#executeDouble}.
+ * @param <T> arg 1
+ */
+@FunctionalInterface
+public interface ObjDoubleOperator<T> {
+	double call(T arg1, double arg2, PoolPipeline<ObjDoubleOperator<T>, Double>.PipelineContext ctx);
+}
\ No newline at end of file
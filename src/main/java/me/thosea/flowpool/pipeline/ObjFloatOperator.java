@@ -0,0 +1,13 @@
+package me.thosea.flowpool.pipeline;
+
+import me.thosea.flowpool.pushable.PoolPipeline;
+
+/**
+ * An object arg, a {@code float} arg and a {@code float} return, without boxing.
+ * For use with {@link PoolPipeline#executeFloat}.
+ * @param <T> arg 1
+ */
+@FunctionalInterface
+public interface ObjFloatOperator<T> {
+	float call(T arg1, float arg2, PoolPipeline<ObjFloatOperator<T>, Float>.PipelineContext ctx);
+}
\ No newline at end of file
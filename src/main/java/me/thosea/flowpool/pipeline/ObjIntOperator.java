@@ -0,0 +1,13 @@
+package me.thosea.flowpool.pipeline;
+
+import me.thosea.flowpool.pushable.PoolPipeline;
+
+/**
+ * An object arg, a {@code int} arg and a {@code int} return, without boxing.
+ * For use with {@link PoolPipeline#executeInt}.
+ * @param <T> arg 1
+ */
+@FunctionalInterface
+public interface ObjIntOperator<T> {
+	int call(T arg1, int arg2, PoolPipeline<ObjIntOperator<T>, Integer>.PipelineContext ctx);
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package me.thosea.flowpool.pipeline;
+
+import me.thosea.flowpool.pushable.PoolPipeline;
+
+/**
+ * An object arg, a {@code long} arg and a {@code long} return, without boxing.
+ * For use with {@link PoolPipeline#executeLong}.
+ * @param <T> arg 1
+ */
+@FunctionalInterface
+public interface ObjLongOperator<T> {
+	long call(T arg1, long arg2, PoolPipeline<ObjLongOperator<T>, Long>.PipelineContext ctx);
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package me.thosea.flowpool.pipeline;
+
+import me.thosea.flowpool.pushable.PoolPipeline;
+
+/**
+ * {@link java.util.function.ToDoubleBiFunction} for floats,
+ * used by {@link PoolPipeline#executeFloat}.
+ * @param <T> arg 1
+ * @param <U> arg 2
+ */
+@FunctionalInterface
+public interface ToFloatBiFunction<T, U> {
+	float applyAsFloat(T t, U u);
+}
\ No newline at end of file
@@ -1,13 +1,26 @@
 package me.thosea.flowpool.pushable;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NonNull;
 import me.thosea.flowpool.HandlerPool;
 import me.thosea.flowpool.IPoolPushable;
 import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.PoolJournal;
+import me.thosea.flowpool.metrics.PoolMetrics;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
 
 /**
  * Provides a base for collection-based {@link IPoolPushable}s.
@@ -21,6 +34,9 @@ public abstract class AbstractPoolCollection<T> implements IPoolPushable<T> {
 	 */
 	public static final int DEFAULT_COLLECTION_SIZE = 4;
 
+	@Getter(AccessLevel.NONE)
+	private List<T> entryView;
+
 	// abstract to force superclasses to write docs
 	@Override
 	public abstract void push(HandlerPool pool, T obj);
@@ -33,7 +49,14 @@ public abstract class AbstractPoolCollection<T> implements IPoolPushable<T> {
 		PoolEntry<T> entry = new PoolEntry<>(pool, obj);
 		this.doAdd(entry, reverse);
 		pool.getPushedStacks().add(this);
+		if(PoolJournal.isRecording()) {
+			PoolJournal.record(() -> {
+				this.doRemove(pool);
+				pool.getPushedStacks().remove(this);
+			});
+		}
 
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPush(this, pool);
 		this.onPush(entry);
 	}
 
@@ -53,30 +76,32 @@ public abstract class AbstractPoolCollection<T> implements IPoolPushable<T> {
 	 */
 	@Nullable
 	public PoolEntry<T> popAndGet(HandlerPool pool) {
-		var iterator = this.getCollection().iterator();
+		Runnable undo = PoolJournal.isRecording() ? this.createPopUndo(pool) : null;
+		PoolEntry<T> entry = this.doRemove(pool);
+		if(entry == null) return null;
 
-		while(iterator.hasNext()) {
-			PoolEntry<T> entry = iterator.next();
-			if(entry.pool() == pool) {
-				iterator.remove();
-				pool.getPushedStacks().remove(this);
-				this.onPop(entry);
-				return entry;
-			}
-		}
-
-		return null;
+		pool.getPushedStacks().remove(this);
+		if(undo != null) PoolJournal.record(undo);
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPop(this, pool);
+		this.onPop(entry);
+		return entry;
 	}
 
 	/**
 	 * Returns the PoolEntry pushed onto the stack by the HandlerPool.
+	 * O(1) if the collection is an {@link IndexedEntryList}.
 	 * @param pool HandlerPool
 	 * @return {@link PoolEntry} if pushed by it, null otherwise
 	 */
 	@Nullable
 	public PoolEntry<T> getPushEntry(HandlerPool pool) {
 		if(pool != null) {
-			for(PoolEntry<T> entry : this.getCollection()) {
+			Collection<PoolEntry<T>> collection = this.getCollection();
+			if(collection instanceof IndexedEntryList<T> indexed) {
+				return indexed.getEntry(pool);
+			}
+
+			for(PoolEntry<T> entry : collection) {
 				if(entry.pool() == pool) {
 					return entry;
 				}
@@ -86,6 +111,14 @@ public abstract class AbstractPoolCollection<T> implements IPoolPushable<T> {
 		return null;
 	}
 
+	/**
+	 * @return true if the collection is an {@link IndexedEntryList},
+	 * making pops and {@link #getPushEntry(HandlerPool)} O(1)
+	 */
+	public boolean isIndexed() {
+		return getCollection() instanceof IndexedEntryList;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -102,18 +135,244 @@ public abstract class AbstractPoolCollection<T> implements IPoolPushable<T> {
 	public abstract Collection<PoolEntry<T>> getCollection();
 
 	/**
-	 * Gets the entries in the collection. Be careful using this,
-	 * as it streams and filters {@link #getCollection()}, which may
-	 * create overhead.
-	 * @return entries in the collection
+	 * Gets a copy of the entries in the collection.
+	 * For reading them without copying, see {@link #getEntryView()} and {@link #forEachEntry(Consumer)}.
+	 * @return unmodifiable copy of the entries in the collection
 	 * @see #getCollection()
 	 */
 	public List<T> getEntries() {
-		return getCollection().stream().map(PoolEntry::obj).toList();
+		Collection<PoolEntry<T>> collection = this.getCollection();
+		Object[] result = new Object[collection.size()];
+		int i = 0;
+		for(PoolEntry<T> entry : collection) {
+			result[i++] = entry.obj();
+		}
+
+		@SuppressWarnings("unchecked")
+		List<T> list = (List<T>) Arrays.asList(result);
+		return Collections.unmodifiableList(list);
+	}
+
+	/**
+	 * Gets a read-only view of the entries in the collection, in iteration order.
+	 * The view isn't a copy: it reflects later pushes and pops, and creating it doesn't allocate
+	 * after the first call.
+	 * @return live unmodifiable view of the entries
+	 */
+	public List<T> getEntryView() {
+		if(entryView == null) {
+			entryView = new EntryView();
+		}
+		return entryView;
+	}
+
+	/**
+	 * Gets the entry at the index, in iteration order.
+	 * O(1) if the collection is a random-access list, and sequential calls are O(1)
+	 * for an {@link IndexedEntryList}. Other collections are walked from the closest end,
+	 * so prefer {@link #forEachEntry(Consumer)} or iterating {@link #getEntryView()} for them.
+	 * @param index index of the entry
+	 * @return entry at the index
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public T getEntry(int index) {
+		Collection<PoolEntry<T>> collection = this.getCollection();
+		if(collection instanceof List<PoolEntry<T>> list) {
+			return list.get(index).obj();
+		}
+
+		int size = collection.size();
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		Iterator<PoolEntry<T>> iterator;
+		int steps;
+		if(collection instanceof Deque<PoolEntry<T>> deque && index >= (size >> 1)) {
+			iterator = deque.descendingIterator();
+			steps = size - 1 - index;
+		} else {
+			iterator = collection.iterator();
+			steps = index;
+		}
+
+		for(; steps > 0; steps--) iterator.next();
+		return iterator.next().obj();
+	}
+
+	/**
+	 * Calls the action with every entry, in iteration order.
+	 * Random-access and indexed lists are walked by index without an iterator,
+	 * other collections like {@link ArrayDeque}s with a plain for-each.
+	 * Don't push or pop in the action.
+	 * @param action action to call
+	 */
+	public void forEachEntry(@NonNull Consumer<? super T> action) {
+		Collection<PoolEntry<T>> collection = this.getCollection();
+		if(collection instanceof List<PoolEntry<T>> list
+				&& (list instanceof RandomAccess || list instanceof IndexedEntryList)) {
+			for(int i = 0, size = list.size(); i < size; i++) {
+				action.accept(list.get(i).obj());
+			}
+		} else {
+			for(PoolEntry<T> entry : collection) {
+				action.accept(entry.obj());
+			}
+		}
 	}
 
 	protected abstract void doAdd(PoolEntry<T> entry, boolean reverse);
 
+	/**
+	 * Removes the entry of the pool from the collection,
+	 * without touching {@link HandlerPool#getPushedStacks()} or calling {@link #onPop(PoolEntry)}.
+	 * @param pool HandlerPool
+	 * @return removed entry or null if not pushed by pool
+	 */
+	@Nullable
+	protected PoolEntry<T> doRemove(HandlerPool pool) {
+		Collection<PoolEntry<T>> collection = this.getCollection();
+		if(collection instanceof IndexedEntryList<T> indexed) {
+			return indexed.removeEntry(pool);
+		}
+
+		var iterator = collection.iterator();
+		while(iterator.hasNext()) {
+			PoolEntry<T> entry = iterator.next();
+			if(entry.pool() == pool) {
+				iterator.remove();
+				return entry;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Creates the action undoing a pop of the pool for {@link PoolJournal},
+	 * called before the entry is removed while a journal is recording.
+	 * By default, it puts the entry back at its index with {@link #restoreEntry(PoolEntry, int)}.
+	 * @param pool HandlerPool about to be popped
+	 * @return undo action, or null if the pool didn't push this
+	 */
+	@Nullable
+	protected Runnable createPopUndo(HandlerPool pool) {
+		int index = 0;
+		for(PoolEntry<T> entry : this.getCollection()) {
+			if(entry.pool() == pool) {
+				int at = index;
+				return () -> {
+					this.restoreEntry(entry, at);
+					pool.getPushedStacks().add(this);
+				};
+			}
+			index++;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Puts a popped entry back at its index when a {@link PoolJournal} rolls back,
+	 * without touching {@link HandlerPool#getPushedStacks()} or calling {@link #onPush(PoolEntry)}.
+	 * Deques that aren't lists are only O(1) at either end.
+	 * @param entry popped entry
+	 * @param index index the entry was at
+	 */
+	protected void restoreEntry(PoolEntry<T> entry, int index) {
+		Collection<PoolEntry<T>> collection = this.getCollection();
+		if(collection instanceof List<PoolEntry<T>> list) {
+			list.add(index, entry);
+		} else if(collection instanceof Deque<PoolEntry<T>> deque) {
+			if(index == 0) {
+				deque.addFirst(entry);
+			} else if(index >= deque.size()) {
+				deque.addLast(entry);
+			} else {
+				// move the entries before it out of the way, then put them back
+				Deque<PoolEntry<T>> before = new ArrayDeque<>(index);
+				for(int i = 0; i < index; i++) {
+					before.addFirst(deque.removeFirst());
+				}
+
+				deque.addFirst(entry);
+				for(PoolEntry<T> moved : before) {
+					deque.addFirst(moved);
+				}
+			}
+		} else {
+			collection.add(entry);
+		}
+	}
+
 	protected abstract void onPush(PoolEntry<T> entry);
 	protected abstract void onPop(PoolEntry<T> entry);
+
+	private final class EntryView extends AbstractList<T> {
+		@Override
+		public T get(int index) {
+			return getEntry(index);
+		}
+
+		@Override
+		public int size() {
+			return getPushCount();
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			Iterator<PoolEntry<T>> iterator = getCollection().iterator();
+			return new Iterator<>() {
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+
+				@Override
+				public T next() {
+					return iterator.next().obj();
+				}
+			};
+		}
+
+		@Override
+		public void forEach(Consumer<? super T> action) {
+			forEachEntry(action);
+		}
+
+		// the AbstractList versions go through get(int), which is O(n) for deques
+
+		@Override
+		public int indexOf(Object o) {
+			int index = 0;
+			for(T entry : this) {
+				if(Objects.equals(o, entry)) return index;
+				index++;
+			}
+			return -1;
+		}
+
+		@Override
+		public int lastIndexOf(Object o) {
+			int result = -1;
+			int index = 0;
+			for(T entry : this) {
+				if(Objects.equals(o, entry)) result = index;
+				index++;
+			}
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(o == this) return true;
+			if(!(o instanceof List<?> other) || other.size() != size()) return false;
+
+			Iterator<?> otherIterator = other.iterator();
+			for(T entry : this) {
+				if(!otherIterator.hasNext() || !Objects.equals(entry, otherIterator.next())) return false;
+			}
+			return !otherIterator.hasNext();
+		}
+	}
 }
\ No newline at end of file
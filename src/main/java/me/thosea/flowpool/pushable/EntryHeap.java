@@ -0,0 +1,195 @@
+package me.thosea.flowpool.pushable;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Binary heap of {@link PoolEntry}s indexed by pool, backing {@link PoolPriorityQueue} and {@link PoolAggregate}.<br>
+ * Entries are ordered by priority, highest first, then by the comparator, then by the most recently added.
+ * Adding and removing are O(log n), the first entry is O(1).
+ * @param <T> object type
+ */
+final class EntryHeap<T> {
+	private final Map<HandlerPool, Node<T>> nodes;
+	private final Comparator<Node<T>> order;
+
+	private Node<T>[] heap;
+	private int size = 0;
+	private long nextSequence = 0;
+
+	// entries in order, rebuilt on first read after a change
+	private PoolEntry<T>[] sorted;
+	private boolean sortedDirty = false;
+
+	@SuppressWarnings("unchecked")
+	EntryHeap(@Nullable Comparator<? super T> comparator, int initialCapacity) {
+		this.nodes = new IdentityHashMap<>(initialCapacity);
+		this.heap = (Node<T>[]) new Node<?>[Math.max(1, initialCapacity)];
+		this.sorted = (PoolEntry<T>[]) new PoolEntry<?>[0];
+
+		Comparator<Node<T>> order = (a, b) -> Integer.compare(b.priority, a.priority);
+		if(comparator != null) {
+			order = order.thenComparing((a, b) -> comparator.compare(a.entry.obj(), b.entry.obj()));
+		}
+		this.order = order.thenComparing((a, b) -> Long.compare(b.sequence, a.sequence));
+	}
+
+	int size() {
+		return size;
+	}
+
+	@Nullable
+	PoolEntry<T> first() {
+		return size == 0 ? null : heap[0].entry;
+	}
+
+	@Nullable
+	PoolEntry<T> get(HandlerPool pool) {
+		Node<T> node = nodes.get(pool);
+		return node == null ? null : node.entry;
+	}
+
+	/**
+	 * @return priority of the pool's entry, zero if it has none
+	 */
+	int getPriority(HandlerPool pool) {
+		Node<T> node = nodes.get(pool);
+		return node == null ? 0 : node.priority;
+	}
+
+	/**
+	 * @return action adding the pool's entry back with the same priority and place among ties,
+	 * null if the pool has no entry
+	 */
+	@Nullable
+	Runnable createRestore(HandlerPool pool) {
+		Node<T> node = nodes.get(pool);
+		if(node == null) return null;
+
+		return () -> add(new Node<>(node.entry, node.priority, node.sequence));
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the pool already has an entry
+	 */
+	void add(PoolEntry<T> entry, int priority) {
+		add(new Node<>(entry, priority, nextSequence++));
+	}
+
+	private void add(Node<T> node) {
+		if(nodes.putIfAbsent(node.entry.pool(), node) != null) {
+			throw new IllegalArgumentException("Pool already has an entry in this heap");
+		}
+
+		if(size == heap.length) {
+			heap = Arrays.copyOf(heap, size << 1);
+		}
+
+		heap[size] = node;
+		size++;
+		siftUp(size - 1);
+		this.sortedDirty = true;
+	}
+
+	@Nullable
+	PoolEntry<T> remove(HandlerPool pool) {
+		Node<T> node = nodes.remove(pool);
+		if(node == null) return null;
+
+		int index = node.index;
+		int last = --size;
+		Node<T> moved = heap[last];
+		heap[last] = null;
+
+		if(index != last) {
+			heap[index] = moved;
+			moved.index = index;
+
+			siftDown(index);
+			if(heap[index] == moved) {
+				siftUp(index);
+			}
+		}
+
+		this.sortedDirty = true;
+		return node.entry;
+	}
+
+	/**
+	 * @return entries in order, don't modify it. Replaced or rewritten after changes
+	 */
+	@SuppressWarnings("unchecked")
+	PoolEntry<T>[] sorted() {
+		if(sortedDirty) {
+			Node<T>[] nodes = Arrays.copyOf(heap, size);
+			Arrays.sort(nodes, order);
+
+			PoolEntry<T>[] result = sorted.length == size ? sorted : (PoolEntry<T>[]) new PoolEntry<?>[size];
+			for(int i = 0; i < size; i++) {
+				result[i] = nodes[i].entry;
+			}
+
+			this.sorted = result;
+			this.sortedDirty = false;
+		}
+
+		return sorted;
+	}
+
+	private void siftUp(int index) {
+		Node<T> node = heap[index];
+		while(index > 0) {
+			int parent = (index - 1) >>> 1;
+			Node<T> parentNode = heap[parent];
+			if(order.compare(node, parentNode) >= 0) break;
+
+			heap[index] = parentNode;
+			parentNode.index = index;
+			index = parent;
+		}
+
+		heap[index] = node;
+		node.index = index;
+	}
+
+	private void siftDown(int index) {
+		Node<T> node = heap[index];
+		int half = size >>> 1;
+		while(index < half) {
+			int child = (index << 1) + 1;
+			int right = child + 1;
+			if(right < size && order.compare(heap[right], heap[child]) < 0) {
+				child = right;
+			}
+
+			Node<T> childNode = heap[child];
+			if(order.compare(node, childNode) <= 0) break;
+
+			heap[index] = childNode;
+			childNode.index = index;
+			index = child;
+		}
+
+		heap[index] = node;
+		node.index = index;
+	}
+
+	private static final class Node<T> {
+		private final PoolEntry<T> entry;
+		private final int priority;
+		private final long sequence;
+		private int index;
+
+		private Node(PoolEntry<T> entry, int priority, long sequence) {
+			this.entry = entry;
+			this.priority = priority;
+			this.sequence = sequence;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package me.thosea.flowpool.pushable;
+
+import me.thosea.flowpool.PoolEntry;
+
+import java.util.Collection;
+
+/**
+ * Flat copy of the objects of a collection of entries, in iteration order.
+ * Backs the handler arrays of {@link PoolPipeline} and {@link PoolBroadcast}.<br>
+ * The array is replaced (never modified) when membership changes,
+ * so executions can keep iterating over the array they started with.
+ */
+final class HandlerCache {
+	private static final Object[] NO_HANDLERS = new Object[0];
+
+	private Object[] handlers = NO_HANDLERS;
+	private boolean dirty = false;
+
+	/**
+	 * Marks the array as outdated, it is rebuilt on the next {@link #get(Collection)}.
+	 */
+	void invalidate() {
+		this.dirty = true;
+	}
+
+	/**
+	 * @param entries entries to copy the objects of, if outdated
+	 * @return handler array, don't modify it
+	 */
+	Object[] get(Collection<? extends PoolEntry<?>> entries) {
+		if(dirty) {
+			dirty = false;
+
+			int size = entries.size();
+			if(size == 0) {
+				handlers = NO_HANDLERS;
+			} else {
+				Object[] result = new Object[size];
+				int i = 0;
+				for(PoolEntry<?> entry : entries) { // no get(i), the list may be linked
+					result[i++] = entry.obj();
+				}
+				handlers = result;
+			}
+		}
+
+		return handlers;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,752 @@
+package me.thosea.flowpool.pushable;
+
+import lombok.NonNull;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractSequentialList;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Doubly-linked list of {@link PoolEntry}s that also maps each {@link HandlerPool} to its node,
+ * so looking up or removing the entry of a pool is O(1) no matter the size.<br>
+ * Used as the backing collection of the indexed mode of {@link PoolList}, {@link PoolStack}
+ * and {@link PoolPipeline}, like {@link PoolList#indexed()}.<p>
+ * A pool can only have one entry in the list, adding a second one throws.
+ * Indexed access walks from the closest end, but walking one step from
+ * the last accessed index is O(1), so sequential {@link #get(int)} loops stay linear.
+ * @param <T> object type
+ */
+public class IndexedEntryList<T> extends AbstractSequentialList<PoolEntry<T>> implements Deque<PoolEntry<T>> {
+	private final Map<HandlerPool, Node<T>> nodes;
+	private Node<T> head;
+	private Node<T> tail;
+	private int size;
+
+	// last node accessed with get(int), cleared on structural modification
+	private Node<T> cursor;
+	private int cursorIndex;
+
+	/**
+	 * Constructs a new IndexedEntryList with an initial capacity of {@link AbstractPoolCollection#DEFAULT_COLLECTION_SIZE}.
+	 */
+	public IndexedEntryList() {
+		this(AbstractPoolCollection.DEFAULT_COLLECTION_SIZE);
+	}
+
+	/**
+	 * Constructs a new IndexedEntryList with the specified initial capacity.
+	 * @param initialCapacity initial capacity of the pool index
+	 */
+	public IndexedEntryList(int initialCapacity) {
+		this.nodes = new IdentityHashMap<>(initialCapacity);
+	}
+
+	// for views, which keep no state of their own
+	private IndexedEntryList(Void view) {
+		this.nodes = null;
+	}
+
+	/**
+	 * @param pool HandlerPool
+	 * @return entry of the pool, or null if it has none
+	 */
+	@Nullable
+	public PoolEntry<T> getEntry(HandlerPool pool) {
+		Node<T> node = nodes.get(pool);
+		return node == null ? null : node.entry;
+	}
+
+	/**
+	 * Removes the entry of the pool.
+	 * @param pool HandlerPool
+	 * @return removed entry, or null if the pool has none
+	 */
+	@Nullable
+	public PoolEntry<T> removeEntry(HandlerPool pool) {
+		Node<T> node = nodes.get(pool);
+		if(node == null) return null;
+
+		unlink(node);
+		return node.entry;
+	}
+
+	/**
+	 * @param pool HandlerPool
+	 * @return true if the pool has an entry in this list
+	 */
+	public boolean containsPool(HandlerPool pool) {
+		return nodes.containsKey(pool);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public PoolEntry<T> get(int index) {
+		return node(index).entry;
+	}
+
+	@Override
+	public PoolEntry<T> set(int index, PoolEntry<T> element) {
+		Node<T> node = node(index);
+		PoolEntry<T> old = node.entry;
+		replace(node, element);
+		return old;
+	}
+
+	@Override
+	public void add(int index, PoolEntry<T> element) {
+		if(index == size) {
+			addLast(element);
+		} else {
+			linkBefore(element, node(index));
+		}
+	}
+
+	@Override
+	public PoolEntry<T> remove(int index) {
+		Node<T> node = node(index);
+		unlink(node);
+		return node.entry;
+	}
+
+	@Override
+	public boolean add(PoolEntry<T> entry) {
+		addLast(entry);
+		return true;
+	}
+
+	/**
+	 * Entries are equal if their pools are, see {@link PoolEntry#equals(Object)}.
+	 */
+	@Override
+	public boolean contains(Object o) {
+		return o instanceof PoolEntry<?> entry && nodes.containsKey(entry.pool());
+	}
+
+	/**
+	 * Entries are equal if their pools are, see {@link PoolEntry#equals(Object)}.
+	 */
+	@Override
+	public boolean remove(Object o) {
+		return o instanceof PoolEntry<?> entry && removeEntry(entry.pool()) != null;
+	}
+
+	@Override
+	public void clear() {
+		nodes.clear();
+		head = tail = null;
+		size = 0;
+		modified();
+	}
+
+	@Override
+	public void addFirst(PoolEntry<T> entry) {
+		if(head == null) {
+			linkOnly(entry);
+		} else {
+			linkBefore(entry, head);
+		}
+	}
+
+	@Override
+	public void addLast(PoolEntry<T> entry) {
+		if(tail == null) {
+			linkOnly(entry);
+		} else {
+			Node<T> node = newNode(entry);
+			node.prev = tail;
+			tail.next = node;
+			tail = node;
+		}
+	}
+
+	@Override
+	public boolean offerFirst(PoolEntry<T> entry) {
+		addFirst(entry);
+		return true;
+	}
+
+	@Override
+	public boolean offerLast(PoolEntry<T> entry) {
+		addLast(entry);
+		return true;
+	}
+
+	@Override
+	public PoolEntry<T> removeFirst() {
+		if(head == null) throw new NoSuchElementException();
+		return pollFirst();
+	}
+
+	@Override
+	public PoolEntry<T> removeLast() {
+		if(tail == null) throw new NoSuchElementException();
+		return pollLast();
+	}
+
+	@Override
+	public PoolEntry<T> pollFirst() {
+		if(head == null) return null;
+
+		Node<T> node = head;
+		unlink(node);
+		return node.entry;
+	}
+
+	@Override
+	public PoolEntry<T> pollLast() {
+		if(tail == null) return null;
+
+		Node<T> node = tail;
+		unlink(node);
+		return node.entry;
+	}
+
+	@Override
+	public PoolEntry<T> getFirst() {
+		if(head == null) throw new NoSuchElementException();
+		return head.entry;
+	}
+
+	@Override
+	public PoolEntry<T> getLast() {
+		if(tail == null) throw new NoSuchElementException();
+		return tail.entry;
+	}
+
+	@Override
+	public PoolEntry<T> peekFirst() {
+		return head == null ? null : head.entry;
+	}
+
+	@Override
+	public PoolEntry<T> peekLast() {
+		return tail == null ? null : tail.entry;
+	}
+
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		return remove(o);
+	}
+
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		return remove(o); // pools are unique
+	}
+
+	@Override
+	public boolean offer(PoolEntry<T> entry) {
+		return offerLast(entry);
+	}
+
+	@Override
+	public PoolEntry<T> remove() {
+		return removeFirst();
+	}
+
+	@Override
+	public PoolEntry<T> poll() {
+		return pollFirst();
+	}
+
+	@Override
+	public PoolEntry<T> element() {
+		return getFirst();
+	}
+
+	@Override
+	public PoolEntry<T> peek() {
+		return peekFirst();
+	}
+
+	@Override
+	public void push(PoolEntry<T> entry) {
+		addFirst(entry);
+	}
+
+	@Override
+	public PoolEntry<T> pop() {
+		return removeFirst();
+	}
+
+	@Override
+	public Iterator<PoolEntry<T>> iterator() {
+		return new Itr(0);
+	}
+
+	@Override
+	public ListIterator<PoolEntry<T>> listIterator(int index) {
+		if(index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		return new Itr(index);
+	}
+
+	@Override
+	public Iterator<PoolEntry<T>> descendingIterator() {
+		ListIterator<PoolEntry<T>> iterator = new Itr(size);
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasPrevious();
+			}
+
+			@Override
+			public PoolEntry<T> next() {
+				return iterator.previous();
+			}
+
+			@Override
+			public void remove() {
+				iterator.remove();
+			}
+		};
+	}
+
+	/**
+	 * Gets a view of this list in reverse order. Changes to either are visible in the other.<br>
+	 * This overrides both {@code List.reversed()} and {@code Deque.reversed()} on Java 21+,
+	 * which would otherwise conflict.
+	 * @return reversed view of this list
+	 */
+	public IndexedEntryList<T> reversed() {
+		return new ReversedView<>(this);
+	}
+
+	private Node<T> node(int index) {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		Node<T> node;
+		int distance;
+
+		// start from whichever is closest: the cursor, the head or the tail
+		if(cursor != null && Math.abs(index - cursorIndex) < Math.min(index, size - 1 - index)) {
+			node = cursor;
+			distance = index - cursorIndex;
+		} else if(index < (size >> 1)) {
+			node = head;
+			distance = index;
+		} else {
+			node = tail;
+			distance = index - (size - 1);
+		}
+
+		for(; distance > 0; distance--) node = node.next;
+		for(; distance < 0; distance++) node = node.prev;
+
+		this.cursor = node;
+		this.cursorIndex = index;
+		return node;
+	}
+
+	private Node<T> newNode(@NonNull PoolEntry<T> entry) {
+		Node<T> node = new Node<>(entry);
+		if(nodes.putIfAbsent(entry.pool(), node) != null) {
+			throw new IllegalArgumentException("Pool already has an entry in this list");
+		}
+
+		size++;
+		modified();
+		return node;
+	}
+
+	private void linkOnly(PoolEntry<T> entry) {
+		head = tail = newNode(entry);
+	}
+
+	private void linkBefore(PoolEntry<T> entry, Node<T> next) {
+		Node<T> node = newNode(entry);
+		node.next = next;
+		node.prev = next.prev;
+
+		if(next.prev == null) {
+			head = node;
+		} else {
+			next.prev.next = node;
+		}
+
+		next.prev = node;
+	}
+
+	private void unlink(Node<T> node) {
+		if(node.prev == null) {
+			head = node.next;
+		} else {
+			node.prev.next = node.next;
+		}
+
+		if(node.next == null) {
+			tail = node.prev;
+		} else {
+			node.next.prev = node.prev;
+		}
+
+		node.prev = node.next = null;
+		nodes.remove(node.entry.pool());
+		size--;
+		modified();
+	}
+
+	private void replace(Node<T> node, @NonNull PoolEntry<T> entry) {
+		HandlerPool oldPool = node.entry.pool();
+		if(entry.pool() != oldPool) {
+			if(nodes.putIfAbsent(entry.pool(), node) != null) {
+				throw new IllegalArgumentException("Pool already has an entry in this list");
+			}
+			nodes.remove(oldPool);
+		}
+
+		node.entry = entry;
+	}
+
+	private void modified() {
+		this.modCount++;
+		this.cursor = null;
+	}
+
+	private static final class Node<T> {
+		private PoolEntry<T> entry;
+		private Node<T> prev;
+		private Node<T> next;
+
+		private Node(PoolEntry<T> entry) {
+			this.entry = entry;
+		}
+	}
+
+	private final class Itr implements ListIterator<PoolEntry<T>> {
+		private Node<T> next;
+		private Node<T> lastReturned;
+		private int nextIndex;
+		private int expectedModCount = modCount;
+
+		private Itr(int index) {
+			this.next = index == size ? null : node(index);
+			this.nextIndex = index;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextIndex < size;
+		}
+
+		@Override
+		public PoolEntry<T> next() {
+			checkModified();
+			if(!hasNext()) throw new NoSuchElementException();
+
+			lastReturned = next;
+			next = next.next;
+			nextIndex++;
+			return lastReturned.entry;
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return nextIndex > 0;
+		}
+
+		@Override
+		public PoolEntry<T> previous() {
+			checkModified();
+			if(!hasPrevious()) throw new NoSuchElementException();
+
+			next = lastReturned = (next == null) ? tail : next.prev;
+			nextIndex--;
+			return lastReturned.entry;
+		}
+
+		@Override
+		public int nextIndex() {
+			return nextIndex;
+		}
+
+		@Override
+		public int previousIndex() {
+			return nextIndex - 1;
+		}
+
+		@Override
+		public void remove() {
+			checkModified();
+			if(lastReturned == null) throw new IllegalStateException();
+
+			if(next == lastReturned) { // after previous()
+				next = lastReturned.next;
+			} else {
+				nextIndex--;
+			}
+
+			unlink(lastReturned);
+			lastReturned = null;
+			expectedModCount = modCount;
+		}
+
+		@Override
+		public void set(PoolEntry<T> entry) {
+			checkModified();
+			if(lastReturned == null) throw new IllegalStateException();
+
+			replace(lastReturned, entry);
+		}
+
+		@Override
+		public void add(PoolEntry<T> entry) {
+			checkModified();
+
+			if(next == null) {
+				addLast(entry);
+			} else {
+				linkBefore(entry, next);
+			}
+
+			lastReturned = null;
+			nextIndex++;
+			expectedModCount = modCount;
+		}
+
+		private void checkModified() {
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	private static final class ReversedView<T> extends IndexedEntryList<T> {
+		private final IndexedEntryList<T> list;
+
+		private ReversedView(IndexedEntryList<T> list) {
+			super((Void) null);
+			this.list = list;
+		}
+
+		@Override
+		public IndexedEntryList<T> reversed() {
+			return list;
+		}
+
+		@Override
+		public PoolEntry<T> getEntry(HandlerPool pool) {
+			return list.getEntry(pool);
+		}
+
+		@Override
+		public PoolEntry<T> removeEntry(HandlerPool pool) {
+			return list.removeEntry(pool);
+		}
+
+		@Override
+		public boolean containsPool(HandlerPool pool) {
+			return list.containsPool(pool);
+		}
+
+		@Override
+		public int size() {
+			return list.size;
+		}
+
+		@Override
+		public PoolEntry<T> get(int index) {
+			return list.get(flip(index));
+		}
+
+		@Override
+		public PoolEntry<T> set(int index, PoolEntry<T> element) {
+			return list.set(flip(index), element);
+		}
+
+		@Override
+		public void add(int index, PoolEntry<T> element) {
+			if(index < 0 || index > list.size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + list.size);
+			}
+
+			list.add(list.size - index, element);
+		}
+
+		@Override
+		public PoolEntry<T> remove(int index) {
+			return list.remove(flip(index));
+		}
+
+		@Override
+		public boolean add(PoolEntry<T> entry) {
+			list.addFirst(entry);
+			return true;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return list.contains(o);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			return list.remove(o);
+		}
+
+		@Override
+		public void clear() {
+			list.clear();
+		}
+
+		@Override
+		public void addFirst(PoolEntry<T> entry) {
+			list.addLast(entry);
+		}
+
+		@Override
+		public void addLast(PoolEntry<T> entry) {
+			list.addFirst(entry);
+		}
+
+		@Override
+		public PoolEntry<T> removeFirst() {
+			return list.removeLast();
+		}
+
+		@Override
+		public PoolEntry<T> removeLast() {
+			return list.removeFirst();
+		}
+
+		@Override
+		public PoolEntry<T> pollFirst() {
+			return list.pollLast();
+		}
+
+		@Override
+		public PoolEntry<T> pollLast() {
+			return list.pollFirst();
+		}
+
+		@Override
+		public PoolEntry<T> getFirst() {
+			return list.getLast();
+		}
+
+		@Override
+		public PoolEntry<T> getLast() {
+			return list.getFirst();
+		}
+
+		@Override
+		public PoolEntry<T> peekFirst() {
+			return list.peekLast();
+		}
+
+		@Override
+		public PoolEntry<T> peekLast() {
+			return list.peekFirst();
+		}
+
+		@Override
+		public Iterator<PoolEntry<T>> iterator() {
+			return list.descendingIterator();
+		}
+
+		@Override
+		public ListIterator<PoolEntry<T>> listIterator(int index) {
+			if(index < 0 || index > list.size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + list.size);
+			}
+
+			return new ReversedItr<>(list, index);
+		}
+
+		@Override
+		public Iterator<PoolEntry<T>> descendingIterator() {
+			return list.iterator();
+		}
+
+		private int flip(int index) {
+			if(index < 0 || index >= list.size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + list.size);
+			}
+
+			return list.size - 1 - index;
+		}
+	}
+
+	// walks a list iterator backwards, indexes are counted from the end
+	private static final class ReversedItr<T> implements ListIterator<PoolEntry<T>> {
+		private final IndexedEntryList<T> list;
+		private final ListIterator<PoolEntry<T>> iterator;
+		private boolean canModify;
+
+		private ReversedItr(IndexedEntryList<T> list, int index) {
+			this.list = list;
+			this.iterator = list.listIterator(list.size - index);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasPrevious();
+		}
+
+		@Override
+		public PoolEntry<T> next() {
+			PoolEntry<T> entry = iterator.previous();
+			canModify = true;
+			return entry;
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public PoolEntry<T> previous() {
+			PoolEntry<T> entry = iterator.next();
+			canModify = true;
+			return entry;
+		}
+
+		@Override
+		public int nextIndex() {
+			return list.size - iterator.nextIndex();
+		}
+
+		@Override
+		public int previousIndex() {
+			return nextIndex() - 1;
+		}
+
+		@Override
+		public void remove() {
+			if(!canModify) throw new IllegalStateException();
+			iterator.remove();
+			canModify = false;
+		}
+
+		@Override
+		public void set(PoolEntry<T> entry) {
+			if(!canModify) throw new IllegalStateException();
+			iterator.set(entry);
+		}
+
+		@Override
+		public void add(PoolEntry<T> entry) {
+			// inserted after the cursor in list order, then stepped over so next() is unchanged
+			iterator.add(entry);
+			iterator.previous();
+			canModify = false;
+		}
+
+	}
+}
\ No newline at end of file
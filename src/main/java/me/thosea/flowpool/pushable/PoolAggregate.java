@@ -0,0 +1,247 @@
+package me.thosea.flowpool.pushable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.jfr.PushableCallbackEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Pushable that keeps an aggregate of its objects, like a sum or a maximum,
+ * updated on every push and pop so reading it with {@link #get()} is O(1).<br>
+ * Invertible operations like sums update in O(1), minimums and maximums keep a heap and update in O(log n).
+ * Pops are O(1) lookups, the entries are kept in an {@link IndexedEntryList} in push order.<p>
+ * Create one with the static methods, like {@link #of(Object, BiFunction, BiFunction)} or {@link #max(Comparator)},
+ * or use {@link PoolIntAggregate} or {@link PoolDoubleAggregate} for ints and doubles, which can be read without boxing.
+ * Subclasses implement {@link #added(PoolEntry)}, {@link #removed(PoolEntry)} and {@link #get()}.
+ * @param <T> object type
+ * @param <A> aggregate type
+ */
+@Setter
+@Getter @Accessors(fluent = true, chain = true)
+public abstract class PoolAggregate<T, A> extends AbstractPoolCollection<T> {
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+	protected final IndexedEntryList<T> entries = new IndexedEntryList<>();
+
+	private BiConsumer<PoolAggregate<T, A>, PoolEntry<T>> pushCallback;
+	private BiConsumer<PoolAggregate<T, A>, PoolEntry<T>> popCallback;
+
+	/**
+	 * Creates an aggregate of an invertible operation, like a sum.
+	 * Pushes and pops are O(1). Example: <pre>{@code
+	 * PoolAggregate<Float, Float> speed = PoolAggregate.of(0f, (sum, value) -> sum + value, (sum, value) -> sum - value);
+	 * }</pre>
+	 * @param identity aggregate of no objects
+	 * @param add adds an object to the aggregate
+	 * @param remove removes an object from the aggregate, the inverse of {@code add}
+	 * @return new aggregate
+	 * @param <T> object type
+	 * @param <A> aggregate type
+	 */
+	public static <T, A> PoolAggregate<T, A> of(A identity,
+	                                            @NonNull BiFunction<A, ? super T, A> add,
+	                                            @NonNull BiFunction<A, ? super T, A> remove) {
+		return new Invertible<>(identity, add, remove);
+	}
+
+	/**
+	 * Creates an aggregate of the least object, or null if there is none.
+	 * Pushes and pops are O(log n).
+	 * @param comparator comparator of objects
+	 * @return new aggregate
+	 * @param <T> object type
+	 */
+	public static <T> PoolAggregate<T, T> min(@NonNull Comparator<? super T> comparator) {
+		return new Extreme<>(comparator);
+	}
+
+	/**
+	 * Creates an aggregate of the greatest object, or null if there is none.
+	 * Pushes and pops are O(log n).
+	 * @param comparator comparator of objects
+	 * @return new aggregate
+	 * @param <T> object type
+	 */
+	public static <T> PoolAggregate<T, T> max(@NonNull Comparator<? super T> comparator) {
+		return new Extreme<T>(comparator.reversed());
+	}
+
+	/**
+	 * Creates an aggregate of whether any object matches the predicate, false if there are none.
+	 * Pushes and pops are O(1).
+	 * @param predicate predicate
+	 * @return new aggregate
+	 * @param <T> object type
+	 */
+	public static <T> PoolAggregate<T, Boolean> anyMatch(@NonNull Predicate<? super T> predicate) {
+		return new Matching<>(predicate, false);
+	}
+
+	/**
+	 * Creates an aggregate of whether every object matches the predicate, true if there are none.
+	 * Pushes and pops are O(1).
+	 * @param predicate predicate
+	 * @return new aggregate
+	 * @param <T> object type
+	 */
+	public static <T> PoolAggregate<T, Boolean> allMatch(@NonNull Predicate<? super T> predicate) {
+		return new Matching<>(predicate, true);
+	}
+
+	/**
+	 * Pushes the object, adding it to the aggregate.
+	 * @param pool HandlerPool
+	 * @param obj object to push
+	 */
+	@Override
+	public void push(HandlerPool pool, T obj) {
+		doPush(pool, obj, false);
+	}
+
+	/**
+	 * @return aggregate of the pushed objects
+	 */
+	public abstract A get();
+
+	/**
+	 * Gets the entries in push order. Don't modify it, the aggregate wouldn't be updated.
+	 * @return entries
+	 */
+	@Override
+	public IndexedEntryList<T> getCollection() {
+		return entries;
+	}
+
+	/**
+	 * Adds the entry to the aggregate.
+	 * @param entry pushed entry
+	 */
+	protected abstract void added(PoolEntry<T> entry);
+
+	/**
+	 * Removes the entry from the aggregate.
+	 * @param entry popped entry
+	 */
+	protected abstract void removed(PoolEntry<T> entry);
+
+	@Override
+	protected void doAdd(PoolEntry<T> entry, boolean reverse) {
+		entries.addLast(entry);
+		added(entry);
+	}
+
+	@Nullable
+	@Override
+	protected PoolEntry<T> doRemove(HandlerPool pool) {
+		PoolEntry<T> entry = entries.removeEntry(pool);
+		if(entry != null) {
+			removed(entry);
+		}
+		return entry;
+	}
+
+	@Override
+	protected void restoreEntry(PoolEntry<T> entry, int index) {
+		entries.add(index, entry);
+		added(entry);
+	}
+
+	@Override
+	protected void onPush(PoolEntry<T> entry) {
+		PushableCallbackEvent.call(this, true, pushCallback, entry);
+	}
+
+	@Override
+	protected void onPop(PoolEntry<T> entry) {
+		PushableCallbackEvent.call(this, false, popCallback, entry);
+	}
+
+	private static final class Invertible<T, A> extends PoolAggregate<T, A> {
+		private final A identity;
+		private final BiFunction<A, ? super T, A> add;
+		private final BiFunction<A, ? super T, A> remove;
+		private A value;
+
+		private Invertible(A identity, BiFunction<A, ? super T, A> add, BiFunction<A, ? super T, A> remove) {
+			this.identity = identity;
+			this.add = add;
+			this.remove = remove;
+			this.value = identity;
+		}
+
+		@Override
+		public A get() {
+			return value;
+		}
+
+		@Override
+		protected void added(PoolEntry<T> entry) {
+			value = add.apply(value, entry.obj());
+		}
+
+		@Override
+		protected void removed(PoolEntry<T> entry) {
+			// start over once empty, so inexact inverses like floating point can't drift forever
+			value = entries.isEmpty() ? identity : remove.apply(value, entry.obj());
+		}
+	}
+
+	private static final class Extreme<T> extends PoolAggregate<T, T> {
+		private final EntryHeap<T> heap;
+
+		private Extreme(Comparator<? super T> comparator) {
+			this.heap = new EntryHeap<>(comparator, DEFAULT_COLLECTION_SIZE);
+		}
+
+		@Override
+		public T get() {
+			PoolEntry<T> entry = heap.first();
+			return entry == null ? null : entry.obj();
+		}
+
+		@Override
+		protected void added(PoolEntry<T> entry) {
+			heap.add(entry, 0);
+		}
+
+		@Override
+		protected void removed(PoolEntry<T> entry) {
+			heap.remove(entry.pool());
+		}
+	}
+
+	private static final class Matching<T> extends PoolAggregate<T, Boolean> {
+		private final Predicate<? super T> predicate;
+		private final boolean all;
+		private int matching = 0;
+
+		private Matching(Predicate<? super T> predicate, boolean all) {
+			this.predicate = predicate;
+			this.all = all;
+		}
+
+		@Override
+		public Boolean get() {
+			return all ? matching == entries.size() : matching != 0;
+		}
+
+		@Override
+		protected void added(PoolEntry<T> entry) {
+			if(predicate.test(entry.obj())) matching++;
+		}
+
+		@Override
+		protected void removed(PoolEntry<T> entry) {
+			if(predicate.test(entry.obj())) matching--;
+		}
+	}
+}
\ No newline at end of file
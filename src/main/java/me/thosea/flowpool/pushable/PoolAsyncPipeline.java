@@ -0,0 +1,144 @@
+package me.thosea.flowpool.pushable;
+
+import lombok.Getter;
+import lombok.NonNull;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.metrics.PoolMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * {@link PoolPipeline} whose handlers return a {@link CompletableFuture},
+ * so a handler can wait on I/O without blocking a thread for the whole chain.<p>
+ * Each {@link #executeAsync(BiFunction, Object) asynchronous execution} captures the handlers
+ * when it starts and gets its own context, so a handler suspended mid-chain won't see handlers
+ * pushed or popped after that. Asynchronous executions don't count towards {@link #getDepth()},
+ * so modifications made while one is running are applied right away instead of being queued.<br>
+ * {@link #passAsync(PoolPipeline.PipelineContext, BiFunction)} continues the chain on the {@link #getExecutor() executor},
+ * which can be any executor, including one running virtual threads.<p>
+ * Pushing and popping is still not thread-safe, do it from one thread.
+ * The synchronous {@link #execute(BiFunction, Object)} methods work like they do in {@link PoolPipeline}.
+ * @param <T> handler type - this should be an interface with a {@link PipelineContext} parameter
+ * returning a {@link CompletableFuture}
+ * @param <R> result type of the futures
+ */
+public class PoolAsyncPipeline<T, R> extends PoolPipeline<T, CompletableFuture<R>> {
+	/**
+	 * Executor that asynchronous executions and {@link #passAsync(PoolPipeline.PipelineContext, BiFunction)} run on.
+	 */
+	@Getter private final Executor executor;
+
+	/**
+	 * Constructs a new PoolAsyncPipeline running on {@link ForkJoinPool#commonPool()}.
+	 */
+	public PoolAsyncPipeline() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructs a new PoolAsyncPipeline running on the specified executor.
+	 * @param executor executor to run handlers on
+	 */
+	public PoolAsyncPipeline(@NonNull Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Constructs a new PoolAsyncPipeline with the specified executor and backing list.
+	 * @param executor executor to run handlers on
+	 * @param list backing list, should be empty
+	 */
+	protected PoolAsyncPipeline(@NonNull Executor executor, List<PoolEntry<T>> list) {
+		super(list);
+		this.executor = executor;
+	}
+
+	/**
+	 * Constructs a new PoolAsyncPipeline backed by an {@link IndexedEntryList},
+	 * making pops and {@link #getPushEntry(HandlerPool)} O(1) instead of O(n).
+	 * @param executor executor to run handlers on
+	 * @return indexed PoolAsyncPipeline
+	 * @param <T> handler type
+	 * @param <R> result type
+	 */
+	public static <T, R> PoolAsyncPipeline<T, R> indexed(@NonNull Executor executor) {
+		return new PoolAsyncPipeline<>(executor, new IndexedEntryList<>());
+	}
+
+	/**
+	 * Executes the pipeline on the {@link #getExecutor() executor}.
+	 * Example: <pre>{@code
+	 * pipeline.executeAsync((initial, ctx) -> {
+	 *     return initial.call(request, ctx);
+	 * }, (request, ctx) -> {
+	 *     // Don't use ctx.pass() here!
+	 *     return CompletableFuture.completedFuture(new Response(request));
+	 * });
+	 * }</pre>
+	 * Handlers are executed in order of first pushed to last pushed.
+	 * A handler continues the chain with {@code ctx.pass().call(...)} to stay on the current thread,
+	 * or with {@link #passAsync(PoolPipeline.PipelineContext, BiFunction)} to hop onto the executor.<br>
+	 * <strong>**Do not**</strong> call {@link PipelineContext#pass()}
+	 * in either the {@code initialCaller} or {@code bottomEntry}!
+	 * @param initialCaller will be called with the first entry, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @return future completing with the result of execution, or exceptionally if a handler threw
+	 */
+	public CompletableFuture<R> executeAsync(@NonNull BiFunction<T, PipelineContext, CompletableFuture<R>> initialCaller,
+	                                         @NotNull T bottomEntry) {
+		return executeAsync(initialCaller, bottomEntry, false);
+	}
+
+	/**
+	 * Executes the pipeline on the {@link #getExecutor() executor}, in reverse order.<br>
+	 * Handlers are executed in order of last pushed to first pushed.
+	 * See {@link #executeAsync(BiFunction, Object)} for details.
+	 * @param initialCaller will be called with the first entry, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @return future completing with the result of execution, or exceptionally if a handler threw
+	 */
+	public CompletableFuture<R> executeReversedAsync(@NonNull BiFunction<T, PipelineContext, CompletableFuture<R>> initialCaller,
+	                                                 @NotNull T bottomEntry) {
+		return executeAsync(initialCaller, bottomEntry, true);
+	}
+
+	/**
+	 * Calls the next handler of an asynchronous execution on the {@link #getExecutor() executor}.
+	 * Example: <pre>{@code
+	 * pipeline.push(pool, (request, ctx) -> {
+	 *     return pipeline.passAsync(ctx, (next, ctx1) -> next.call(request.withUser(user), ctx1));
+	 * });
+	 * }</pre>
+	 * Like {@link PipelineContext#pass()}, only call this once per handler.
+	 * @param ctx context of the current execution
+	 * @param caller will be called with the next handler
+	 * @return future completing with the result of the rest of the chain
+	 */
+	public CompletableFuture<R> passAsync(@NonNull PipelineContext ctx,
+	                                      @NonNull BiFunction<T, PipelineContext, CompletableFuture<R>> caller) {
+		return CompletableFuture
+				.supplyAsync(() -> caller.apply(ctx.pass(), ctx), executor)
+				.thenCompose(Function.identity());
+	}
+
+	private CompletableFuture<R> executeAsync(BiFunction<T, PipelineContext, CompletableFuture<R>> initialCaller,
+	                                          T bottomEntry,
+	                                          boolean reversed) {
+		// the handler array is replaced, never modified, so it's a snapshot of the current members
+		PipelineContext ctx = this.createContext(getHandlers(), bottomEntry, reversed);
+
+		return passAsync(ctx, initialCaller).whenComplete((result, error) -> {
+			commitEvent(ctx, 1);
+			if(PoolMetrics.ENABLED) recordExecution(ctx, 1);
+		});
+	}
+}
\ No newline at end of file
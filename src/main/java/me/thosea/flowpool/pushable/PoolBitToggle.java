@@ -0,0 +1,178 @@
+package me.thosea.flowpool.pushable;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.IPoolPushable;
+import me.thosea.flowpool.PoolJournal;
+import me.thosea.flowpool.jfr.PushableCallbackEvent;
+import me.thosea.flowpool.metrics.PoolMetrics;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link PoolToggle} that stores the {@link HandlerPool}s that pushed it as bits,
+ * indexed by {@link HandlerPool#getId()}.<br>
+ * Pushing and popping is a bit flip, and pools with an id below 64 are held in a single {@code long},
+ * so an idle toggle is a single object of about 32 bytes with compressed oops
+ * (the bits, the spill array reference and both callback references).
+ * Higher ids spill into an array that grows to fit the highest id pushed.<p>
+ * Unlike {@link PoolToggle}, the pools that pushed this can not be listed.
+ * Pools give their id back when {@link HandlerPool#close() closed}, so short-lived pools keep ids low.
+ */
+public class PoolBitToggle implements IPoolPushable<Void> {
+	private long word; // ids 0-63
+	private long[] words; // ids 64+, words[i] holds ids 64 * (i + 1) to 64 * (i + 2) - 1
+
+	@Accessors(fluent = true)
+	@Getter @Setter
+	private BiConsumer<PoolBitToggle, HandlerPool> pushCallback;
+	@Accessors(fluent = true)
+	@Getter @Setter
+	private BiConsumer<PoolBitToggle, HandlerPool> popCallback;
+
+	/**
+	 * The passed object will be ignored.
+	 * Use {@link #push(HandlerPool)} instead.
+	 * @param pool HandlerPool
+	 * @param obj object to push
+	 * @deprecated use {@link #push(HandlerPool)} instead
+	 */
+	@Override
+	@Deprecated
+	public void push(HandlerPool pool, Void obj) {
+		this.push(pool);
+	}
+
+	/**
+	 * Marks this toggle as pushed by the {@link HandlerPool#current() current pool}, see {@link #push(HandlerPool)}.
+	 * @throws IllegalStateException if not in a {@link HandlerPool#runScoped(Runnable) scope}
+	 */
+	public void push() {
+		this.push(HandlerPool.current());
+	}
+
+	/**
+	 * Marks this toggle as pushed by the {@link HandlerPool}.<br>
+	 * {@link #isPushed()} and {@link HandlerPool#isPushing(IPoolPushable)} will return true,
+	 * and if the pool didn't push this already, {@link #getPushCount()} will increase.
+	 * @param pool HandlerPool, will be assigned an id if it doesn't have one
+	 */
+	public void push(HandlerPool pool) {
+		if(!set(pool.getId())) return;
+
+		pool.getPushedStacks().add(this);
+		if(PoolJournal.isRecording()) {
+			// the pool may give its id back before a rollback, so it is looked up again
+			PoolJournal.record(() -> {
+				if(pool.hasId()) clear(pool.getId());
+				pool.getPushedStacks().remove(this);
+			});
+		}
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPush(this, pool);
+		PushableCallbackEvent.call(this, true, pushCallback, pool);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean pop(HandlerPool pool) {
+		if(!pool.hasId() || !clear(pool.getId())) return false;
+
+		pool.getPushedStacks().remove(this);
+		if(PoolJournal.isRecording()) {
+			PoolJournal.record(() -> {
+				set(pool.getId());
+				pool.getPushedStacks().add(this);
+			});
+		}
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPop(this, pool);
+		PushableCallbackEvent.call(this, false, popCallback, pool);
+
+		return true;
+	}
+
+	/**
+	 * @param pool HandlerPool
+	 * @return true if the pool pushed this
+	 */
+	public boolean isPushedBy(HandlerPool pool) {
+		if(!pool.hasId()) return false;
+
+		int id = pool.getId();
+		if(id < 64) {
+			return (word & (1L << id)) != 0;
+		}
+
+		int index = (id >>> 6) - 1;
+		return words != null && index < words.length && (words[index] & (1L << id)) != 0;
+	}
+
+	/**
+	 * @return the amount of pools that pushed this
+	 */
+	@Override
+	public int getPushCount() {
+		int count = Long.bitCount(word);
+		if(words != null) {
+			for(long bits : words) {
+				count += Long.bitCount(bits);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isPushed() {
+		if(word != 0) return true;
+
+		if(words != null) {
+			for(long bits : words) {
+				if(bits != 0) return true;
+			}
+		}
+		return false;
+	}
+
+	// sets the bit of the id, returns false if it was set already
+	private boolean set(int id) {
+		long bit = 1L << id;
+		if(id < 64) {
+			if((word & bit) != 0) return false;
+			word |= bit;
+			return true;
+		}
+
+		int index = (id >>> 6) - 1;
+		if(words == null || index >= words.length) {
+			words = words == null
+					? new long[index + 1]
+					: Arrays.copyOf(words, Math.max(index + 1, words.length << 1));
+		}
+
+		if((words[index] & bit) != 0) return false;
+		words[index] |= bit;
+		return true;
+	}
+
+	// clears the bit of the id, returns false if it wasn't set
+	private boolean clear(int id) {
+		long bit = 1L << id;
+		if(id < 64) {
+			if((word & bit) == 0) return false;
+			word &= ~bit;
+			return true;
+		}
+
+		int index = (id >>> 6) - 1;
+		if(words == null || index >= words.length || (words[index] & bit) == 0) return false;
+		words[index] &= ~bit;
+		return true;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,233 @@
+package me.thosea.flowpool.pushable;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.jfr.PushableCallbackEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Pushable of independent handlers managed by {@link HandlerPool}s, which are all called on execution.<br>
+ * Unlike {@link PoolPipeline}, handlers don't call each other: {@link #executeAll(Function, Object, BinaryOperator)}
+ * calls every handler, first pushed to last pushed, and combines their results.<p>
+ * The parallel methods split the handlers across a {@link ForkJoinPool}, as long as there are more than
+ * {@link #getParallelThreshold()} of them, otherwise they run inline like the sequential ones.
+ * Results are combined in push order either way, so the combiner only has to be associative.<p>
+ * Executions capture the handlers when they start, so handlers pushed or popped while executing
+ * only take effect for the next execution. Pushing and popping isn't thread-safe:
+ * handlers called by the parallel methods run on other threads and shouldn't push or pop.
+ * @param <T> handler type
+ * @param <R> result type of the handlers
+ */
+public class PoolBroadcast<T, R> extends AbstractPoolCollection<T> {
+	/**
+	 * Default {@link #getParallelThreshold()}.
+	 */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 64;
+
+	private final List<PoolEntry<T>> list;
+	/**
+	 * Pool the parallel methods split handlers across.
+	 */
+	@Getter private final ForkJoinPool forkJoinPool;
+	/**
+	 * Amount of handlers up to which parallel executions run inline.
+	 */
+	@Getter private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+	@Accessors(fluent = true)
+	@Getter @Setter
+	private BiConsumer<PoolBroadcast<T, R>, PoolEntry<T>> pushCallback;
+	@Accessors(fluent = true)
+	@Getter @Setter
+	private BiConsumer<PoolBroadcast<T, R>, PoolEntry<T>> popCallback;
+
+	// replaced (never modified) when membership changes, so executions can keep iterating over the array they started with
+	private final HandlerCache handlers = new HandlerCache();
+
+	/**
+	 * Constructs a new PoolBroadcast executing in parallel on {@link ForkJoinPool#commonPool()}.
+	 */
+	public PoolBroadcast() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructs a new PoolBroadcast executing in parallel on the specified pool.
+	 * @param forkJoinPool pool to execute in parallel on
+	 */
+	public PoolBroadcast(@NonNull ForkJoinPool forkJoinPool) {
+		this.list = new ArrayList<>(DEFAULT_COLLECTION_SIZE);
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	/**
+	 * Pushes the handler to the back of the list, it will be the last one called.
+	 * @param pool HandlerPool
+	 * @param obj handler
+	 */
+	@Override
+	public void push(HandlerPool pool, T obj) {
+		doPush(pool, obj, false);
+	}
+
+	/**
+	 * Pushes the handler to the front of the list, it will be the first one called.
+	 * @param pool HandlerPool
+	 * @param obj handler
+	 */
+	public void pushFirst(HandlerPool pool, T obj) {
+		doPush(pool, obj, true);
+	}
+
+	/**
+	 * Sets the amount of handlers up to which parallel executions run inline.
+	 * Larger sets are split in halves until each part is at most this size.
+	 * @param parallelThreshold threshold, at least 1
+	 * @throws IllegalArgumentException if the threshold isn't positive
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+		if(parallelThreshold <= 0) {
+			throw new IllegalArgumentException("Parallel threshold must be positive: " + parallelThreshold);
+		}
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Calls every handler, first pushed to last pushed.
+	 * @param caller calls a handler
+	 */
+	@SuppressWarnings("unchecked")
+	public void executeAll(@NonNull Consumer<? super T> caller) {
+		for(Object handler : getHandlers()) {
+			caller.accept((T) handler);
+		}
+	}
+
+	/**
+	 * Calls every handler, first pushed to last pushed, and combines their results. Example: <pre>{@code
+	 * int total = broadcast.executeAll(handler -> handler.weight(item), 0, Integer::sum);
+	 * }</pre>
+	 * @param caller calls a handler and returns its result
+	 * @param identity result if there are no handlers, combined with the first result
+	 * @param combiner combines two results, should be associative
+	 * @return combined result
+	 */
+	@SuppressWarnings("unchecked")
+	public R executeAll(@NonNull Function<? super T, ? extends R> caller,
+	                    R identity,
+	                    @NonNull BinaryOperator<R> combiner) {
+		R result = identity;
+		for(Object handler : getHandlers()) {
+			result = combiner.apply(result, caller.apply((T) handler));
+		}
+		return result;
+	}
+
+	/**
+	 * Calls every handler, splitting them across the {@link #getForkJoinPool() fork-join pool}
+	 * if there are more than {@link #getParallelThreshold()}. Returns once all of them were called.
+	 * @param caller calls a handler, from any thread
+	 */
+	@SuppressWarnings("unchecked")
+	public void executeParallel(@NonNull Consumer<? super T> caller) {
+		Object[] handlers = getHandlers();
+		if(handlers.length <= parallelThreshold) {
+			executeAll(caller);
+			return;
+		}
+
+		RangeTask.invoke(forkJoinPool, handlers.length, parallelThreshold, (from, to) -> {
+			for(int i = from; i < to; i++) {
+				caller.accept((T) handlers[i]);
+			}
+			return null;
+		}, null);
+	}
+
+	/**
+	 * Calls every handler and combines their results, splitting them across the
+	 * {@link #getForkJoinPool() fork-join pool} if there are more than {@link #getParallelThreshold()}.
+	 * Results are combined in push order, like {@link #executeAll(Function, Object, BinaryOperator)},
+	 * but each part starts from the identity, so it should be an identity of the combiner.
+	 * @param caller calls a handler and returns its result, from any thread
+	 * @param identity result if there are no handlers, the starting result of each part
+	 * @param combiner combines two results, should be associative
+	 * @return combined result
+	 */
+	@SuppressWarnings("unchecked")
+	public R executeParallel(@NonNull Function<? super T, ? extends R> caller,
+	                         R identity,
+	                         @NonNull BinaryOperator<R> combiner) {
+		Object[] handlers = getHandlers();
+		if(handlers.length <= parallelThreshold) {
+			return executeAll(caller, identity, combiner);
+		}
+
+		return RangeTask.invoke(forkJoinPool, handlers.length, parallelThreshold, (from, to) -> {
+			R result = identity;
+			for(int i = from; i < to; i++) {
+				result = combiner.apply(result, caller.apply((T) handlers[i]));
+			}
+			return result;
+		}, combiner);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<PoolEntry<T>> getCollection() {
+		return list;
+	}
+
+	@Override
+	protected void doAdd(PoolEntry<T> entry, boolean reverse) {
+		if(reverse) { // pushFirst
+			list.add(0, entry);
+		} else { // push
+			list.add(entry);
+		}
+
+		handlers.invalidate();
+	}
+
+	@Override
+	protected PoolEntry<T> doRemove(HandlerPool pool) {
+		PoolEntry<T> entry = super.doRemove(pool);
+		if(entry != null) {
+			handlers.invalidate();
+		}
+		return entry;
+	}
+
+	@Override
+	protected void restoreEntry(PoolEntry<T> entry, int index) {
+		super.restoreEntry(entry, index);
+		handlers.invalidate();
+	}
+
+	private Object[] getHandlers() {
+		return handlers.get(list);
+	}
+
+	@Override
+	protected void onPush(PoolEntry<T> entry) {
+		PushableCallbackEvent.call(this, true, pushCallback, entry);
+	}
+
+	@Override
+	protected void onPop(PoolEntry<T> entry) {
+		PushableCallbackEvent.call(this, false, popCallback, entry);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,228 @@
+package me.thosea.flowpool.pushable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.jfr.PushableCallbackEvent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * Pipeline that links its handlers into a single chain object ahead of time,
+ * instead of looking up the next handler on every call like {@link PoolPipeline} does.<p>
+ * Handlers receive the rest of the chain as a parameter, and the {@code linker} wraps a handler
+ * around the rest of the chain. The chain is relinked lazily, on the first call to {@link #get()}
+ * after a push or pop, so calls are a plain field read while membership stays the same.
+ * Example: <pre>{@code
+ * interface Stage {
+ *     String apply(String input, UnaryOperator<String> next);
+ * }
+ *
+ * PoolCompiledPipeline<Stage, UnaryOperator<String>> pipeline = new PoolCompiledPipeline<>(
+ *         UnaryOperator.class,
+ *         (stage, next) -> input -> stage.apply(input, next),
+ *         input -> input); // bottom of the chain
+ *
+ * pipeline.push(pool, (input, next) -> next.apply(input.trim()));
+ * String result = pipeline.get().apply(" hi ");
+ * }</pre>
+ * Handlers are linked in order of last pushed to first pushed, like {@link PoolPipeline#execute}:
+ * the last pushed handler is the outermost one.<p>
+ * For hot call sites, {@link #getInvoker()} returns a method handle bound to a {@link MutableCallSite}
+ * whose target is the linked chain as a constant. Keep it in a {@code static final} field and the JIT
+ * can inline through the whole chain, the call site is retargeted when membership changes.<p>
+ * A chain obtained from {@link #get()} stays the same after pushes and pops, so handlers can push
+ * and pop while it's running without anything being queued. Like {@link PoolPipeline}, this isn't thread-safe.
+ * @param <T> handler type
+ * @param <C> chain type, which handlers call to continue
+ */
+public class PoolCompiledPipeline<T, C> extends AbstractPoolCollection<T> {
+	private static final MethodHandle RELINK;
+
+	static {
+		try {
+			RELINK = MethodHandles.lookup().findVirtual(PoolCompiledPipeline.class, "relink",
+					MethodType.methodType(Object.class));
+		} catch(ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final List<PoolEntry<T>> list;
+
+	/**
+	 * Chain type.
+	 */
+	@Getter private final Class<C> chainType;
+	private final BiFunction<? super T, ? super C, ? extends C> linker;
+	/**
+	 * Bottom of the chain, called by the innermost handler or on its own if there are none.
+	 */
+	@Getter private final C bottom;
+
+	@Accessors(fluent = true)
+	@Getter @Setter
+	private BiConsumer<PoolCompiledPipeline<T, C>, PoolEntry<T>> pushCallback;
+	@Accessors(fluent = true)
+	@Getter @Setter
+	private BiConsumer<PoolCompiledPipeline<T, C>, PoolEntry<T>> popCallback;
+
+	@Getter(AccessLevel.NONE)
+	private C chain;
+	@Getter(AccessLevel.NONE)
+	private boolean dirty = false;
+	@Getter(AccessLevel.NONE)
+	private MutableCallSite callSite; // created on the first getInvoker()
+
+	/**
+	 * Constructs a new PoolCompiledPipeline.
+	 * @param chainType chain type, used as the type of {@link #getInvoker()}
+	 * @param linker wraps a handler around the rest of the chain
+	 * @param bottom bottom of the chain
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public PoolCompiledPipeline(@NonNull Class<? super C> chainType,
+	                            @NonNull BiFunction<? super T, ? super C, ? extends C> linker,
+	                            @NonNull C bottom) {
+		this.list = new ArrayList<>(DEFAULT_COLLECTION_SIZE);
+		this.chainType = (Class) chainType; // lets raw interfaces like UnaryOperator.class through
+		this.linker = linker;
+		this.bottom = bottom;
+		this.chain = bottom;
+	}
+
+	/**
+	 * Pushes the handler to the back of the list.
+	 * It will be the outermost handler, called first.
+	 * @param pool HandlerPool
+	 * @param obj handler
+	 */
+	@Override
+	public void push(HandlerPool pool, T obj) {
+		doPush(pool, obj, false);
+	}
+
+	/**
+	 * Pushes the handler to the front of the list.
+	 * It will be the innermost handler, called last before the {@link #getBottom() bottom}.
+	 * @param pool HandlerPool
+	 * @param obj handler
+	 */
+	public void pushLast(HandlerPool pool, T obj) {
+		doPush(pool, obj, true);
+	}
+
+	/**
+	 * Returns the linked chain, relinking it if handlers were pushed or popped since the last call.
+	 * Relinking calls the linker once per handler.
+	 * @return linked chain, the {@link #getBottom() bottom} if there are no handlers
+	 */
+	public C get() {
+		if(dirty) {
+			dirty = false;
+
+			C result = bottom;
+			for(PoolEntry<T> entry : list) { // first pushed is the innermost
+				result = linker.apply(entry.obj(), result);
+			}
+			chain = result;
+		}
+
+		return chain;
+	}
+
+	/**
+	 * Returns a method handle of type {@code ()C} returning the linked chain, bound to a {@link MutableCallSite}.
+	 * Example: <pre>{@code
+	 * static final MethodHandle INVOKER = PIPELINE.getInvoker();
+	 *
+	 * UnaryOperator<String> chain = (UnaryOperator<String>) INVOKER.invokeExact();
+	 * }</pre>
+	 * The call site targets the chain as a constant, so the JIT can inline the handlers into the caller.
+	 * When membership changes, it's retargeted to relink on its next call, which deoptimizes code depending on it.
+	 * Retargeting isn't synchronized with other threads, only call it from the thread pushing and popping.
+	 * @return invoker of type {@code ()C}
+	 */
+	public MethodHandle getInvoker() {
+		if(callSite == null) {
+			callSite = new MutableCallSite(relinker());
+		}
+
+		return callSite.dynamicInvoker();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<PoolEntry<T>> getCollection() {
+		return list;
+	}
+
+	@Override
+	protected void doAdd(PoolEntry<T> entry, boolean reverse) {
+		if(reverse) { // pushLast
+			list.add(0, entry);
+		} else { // push
+			list.add(entry);
+		}
+
+		this.invalidate();
+	}
+
+	@Override
+	protected PoolEntry<T> doRemove(HandlerPool pool) {
+		PoolEntry<T> entry = super.doRemove(pool);
+		if(entry != null) {
+			this.invalidate();
+		}
+		return entry;
+	}
+
+	@Override
+	protected void restoreEntry(PoolEntry<T> entry, int index) {
+		super.restoreEntry(entry, index);
+		this.invalidate();
+	}
+
+	private void invalidate() {
+		if(dirty) return;
+
+		dirty = true;
+		if(callSite != null) {
+			callSite.setTarget(relinker());
+		}
+	}
+
+	private MethodHandle relinker() {
+		return RELINK.bindTo(this).asType(MethodType.methodType(chainType));
+	}
+
+	// target of the call site while the chain is outdated, swaps itself for the constant
+	private Object relink() {
+		C chain = get();
+		callSite.setTarget(MethodHandles.constant(chainType, chain));
+		return chain;
+	}
+
+	@Override
+	protected void onPush(PoolEntry<T> entry) {
+		PushableCallbackEvent.call(this, true, pushCallback, entry);
+	}
+
+	@Override
+	protected void onPop(PoolEntry<T> entry) {
+		PushableCallbackEvent.call(this, false, popCallback, entry);
+	}
+}
\ No newline at end of file
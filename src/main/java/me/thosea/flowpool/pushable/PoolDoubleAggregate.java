@@ -0,0 +1,235 @@
+package me.thosea.flowpool.pushable;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+
+import java.util.Comparator;
+
+/**
+ * {@link PoolAggregate} of doubles, read without boxing with {@link #getAsDouble()}.
+ * Create one with {@link #sum()}, {@link #product()}, {@link #min(double)} or {@link #max(double)}.
+ * Pushed doubles are still boxed in their {@link PoolEntry}, like any other pushable.<p>
+ * Sums and products are updated by subtracting or dividing popped values instead of folding every value again.
+ * Infinities and NaNs are counted instead of added or multiplied, so popping them restores the previous result.
+ * Sums are compensated, and recomputed in O(n) when the remaining values cancel out
+ * to a tiny fraction of their magnitude, since the compensation can't be trusted that far. Products keep their exponent separately,
+ * so they recover from overflowing or underflowing once the values causing it are popped.
+ */
+public final class PoolDoubleAggregate extends PoolAggregate<Double, Double> {
+	private final Kind kind;
+	private final double emptyValue;
+	private final EntryHeap<Double> heap; // null for sums and products
+
+	// sums: finite part of the sum and its compensation
+	// products: sign and mantissa in [1, 2) of the finite non-zero part, times 2^exponent
+	private double value;
+	private double compensation = 0;
+	private double magnitude = 0; // sums: sum of absolute finite values, bounds the error
+	private long exponent = 0;
+
+	// values that can't be subtracted or divided out, counted instead
+	private int zeros = 0; // products only
+	private int nans = 0;
+	private int positiveInfinities = 0;
+	private int negativeInfinities = 0;
+
+	private PoolDoubleAggregate(Kind kind, double emptyValue) {
+		this.kind = kind;
+		this.emptyValue = emptyValue;
+		this.value = emptyValue;
+		this.heap = switch(kind) {
+			case SUM, PRODUCT -> null;
+			case MIN -> new EntryHeap<>(Comparator.naturalOrder(), DEFAULT_COLLECTION_SIZE);
+			case MAX -> new EntryHeap<>(Comparator.reverseOrder(), DEFAULT_COLLECTION_SIZE);
+		};
+	}
+
+	/**
+	 * Creates an aggregate of the sum of the pushed doubles, which is zero if there are none.
+	 * Pushes are O(1). Pops are too, unless the remaining values cancel out to less than
+	 * 2<sup>-26</sup> of their total magnitude, which recomputes the sum in O(n).
+	 * Sums merely hovering near zero, like mixed-sign modifiers, stay O(1).
+	 * @return new aggregate
+	 */
+	public static PoolDoubleAggregate sum() {
+		return new PoolDoubleAggregate(Kind.SUM, 0);
+	}
+
+	/**
+	 * Creates an aggregate of the product of the pushed doubles, which is one if there are none.
+	 * Pushes and pops are O(1), zeros are counted instead of multiplied.
+	 * @return new aggregate
+	 */
+	public static PoolDoubleAggregate product() {
+		return new PoolDoubleAggregate(Kind.PRODUCT, 1);
+	}
+
+	/**
+	 * Creates an aggregate of the least pushed double. Pushes and pops are O(log n).
+	 * @param emptyValue value if nothing is pushed
+	 * @return new aggregate
+	 */
+	public static PoolDoubleAggregate min(double emptyValue) {
+		return new PoolDoubleAggregate(Kind.MIN, emptyValue);
+	}
+
+	/**
+	 * Creates an aggregate of the greatest pushed double. Pushes and pops are O(log n).
+	 * @param emptyValue value if nothing is pushed
+	 * @return new aggregate
+	 */
+	public static PoolDoubleAggregate max(double emptyValue) {
+		return new PoolDoubleAggregate(Kind.MAX, emptyValue);
+	}
+
+	/**
+	 * Pushes the double, adding it to the aggregate. It is boxed into its entry.
+	 * @param pool HandlerPool
+	 * @param value double to push
+	 */
+	public void push(HandlerPool pool, double value) {
+		push(pool, Double.valueOf(value));
+	}
+
+	/**
+	 * @return aggregate of the pushed doubles
+	 */
+	public double getAsDouble() {
+		if(heap != null) {
+			PoolEntry<Double> entry = heap.first();
+			return entry == null ? emptyValue : entry.obj();
+		}
+
+		if(nans != 0) return Double.NaN;
+		int infinities = positiveInfinities + negativeInfinities;
+
+		if(kind == Kind.SUM) {
+			if(positiveInfinities != 0) {
+				return negativeInfinities != 0 ? Double.NaN : Double.POSITIVE_INFINITY;
+			}
+			return negativeInfinities != 0 ? Double.NEGATIVE_INFINITY : value + compensation;
+		}
+
+		if(zeros != 0) return infinities != 0 ? Double.NaN : 0;
+		if(infinities != 0) {
+			boolean negative = (value < 0) != ((negativeInfinities & 1) != 0);
+			return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		}
+		// clamped, scalb saturates to infinity or zero long before the int range
+		return Math.scalb(value, (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, exponent)));
+	}
+
+	/**
+	 * @return {@link #getAsDouble()}, boxed
+	 */
+	@Override
+	public Double get() {
+		return getAsDouble();
+	}
+
+	@Override
+	protected void added(PoolEntry<Double> entry) {
+		double obj = entry.obj();
+		switch(kind) {
+			case SUM, PRODUCT -> {
+				if(!countSpecial(obj, 1)) {
+					if(kind == Kind.SUM) {
+						addToSum(obj);
+						magnitude += Math.abs(obj);
+					} else {
+						multiply(obj, false);
+					}
+				}
+			}
+			default -> heap.add(entry, 0);
+		}
+	}
+
+	@Override
+	protected void removed(PoolEntry<Double> entry) {
+		double obj = entry.obj();
+		switch(kind) {
+			case SUM, PRODUCT -> {
+				if(entries.isEmpty()) {
+					value = emptyValue;
+					compensation = 0;
+					magnitude = 0;
+					exponent = 0;
+					zeros = nans = positiveInfinities = negativeInfinities = 0;
+				} else if(!countSpecial(obj, -1)) {
+					if(kind == Kind.PRODUCT) {
+						multiply(obj, true);
+					} else {
+						addToSum(-obj);
+						magnitude -= Math.abs(obj);
+						if(Math.abs(value + compensation) < magnitude * 0x1p-26) {
+							recomputeSum(); // cancelled out too far to trust the compensation
+						}
+					}
+				}
+			}
+			default -> heap.remove(entry.pool());
+		}
+	}
+
+	// counts values that can't be added or multiplied in and out, returns true if obj was one
+	private boolean countSpecial(double obj, int delta) {
+		if(Double.isNaN(obj)) {
+			nans += delta;
+		} else if(obj == Double.POSITIVE_INFINITY) {
+			positiveInfinities += delta;
+		} else if(obj == Double.NEGATIVE_INFINITY) {
+			negativeInfinities += delta;
+		} else if(obj == 0 && kind == Kind.PRODUCT) {
+			zeros += delta;
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	// Neumaier summation, the compensation keeps the low bits lost by the sum
+	private void addToSum(double obj) {
+		double sum = value + obj;
+		if(Math.abs(value) >= Math.abs(obj)) {
+			compensation += (value - sum) + obj;
+		} else {
+			compensation += (obj - sum) + value;
+		}
+		value = sum;
+	}
+
+	private void recomputeSum() {
+		value = 0;
+		compensation = 0;
+		magnitude = 0;
+		for(PoolEntry<Double> entry : entries) {
+			double obj = entry.obj();
+			if(Double.isFinite(obj)) {
+				addToSum(obj);
+				magnitude += Math.abs(obj);
+			}
+		}
+	}
+
+	private void multiply(double obj, boolean divide) {
+		// scale to [1, 2) first so neither side can overflow or underflow
+		int objExponent = Math.getExponent(obj);
+		double scaled = Math.scalb(obj, -objExponent);
+		if(divide) {
+			value /= scaled;
+			exponent -= objExponent;
+		} else {
+			value *= scaled;
+			exponent += objExponent;
+		}
+
+		int valueExponent = Math.getExponent(value);
+		value = Math.scalb(value, -valueExponent);
+		exponent += valueExponent;
+	}
+
+	private enum Kind {
+		SUM, PRODUCT, MIN, MAX
+	}
+}
\ No newline at end of file
@@ -0,0 +1,247 @@
+package me.thosea.flowpool.pushable;
+
+import lombok.NonNull;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.IPoolPushable;
+import me.thosea.flowpool.metrics.PoolMetrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Event dispatcher whose listeners are managed by {@link HandlerPool}s.<br>
+ * Listeners are pushed for an event type and receive every posted event of that type or a subtype,
+ * including through interfaces. A pool can push any amount of listeners, for any types,
+ * but is only added to {@link HandlerPool#getPushedStacks()} once, so {@link HandlerPool#close()}
+ * removes all of them in one pass.<p>
+ * The listeners of each concrete event class are collected into a table the first time an event
+ * of that class is posted, so posting doesn't walk the type hierarchy. Tables are only rebuilt
+ * for classes affected by a push or pop.
+ * Listeners are called in push order, no matter the type they were pushed for.<p>
+ * Tables are replaced, never modified, so listeners pushed or popped while posting
+ * only take effect for the next post. Like the other pushables, this isn't thread-safe.
+ * @param <E> base event type
+ */
+public class PoolEventBus<E> implements IPoolPushable<Consumer<? super E>> {
+	private static final Listener<?>[] NO_LISTENERS = new Listener<?>[0];
+
+	// listeners by the type they were pushed for, in push order
+	// listeners use identity equality, so a pool's listeners are unlinked without scanning the others
+	private final Map<Class<?>, Set<Listener<?>>> listenersByType = new HashMap<>();
+	// listeners pushed by each pool, in push order
+	private final Map<HandlerPool, List<Listener<?>>> listenersByPool = new IdentityHashMap<>();
+	// listeners of each posted concrete class, built on demand
+	private final Map<Class<?>, Listener<?>[]> tables = new HashMap<>();
+	private long pushed = 0; // sequence of the next listener
+	private int pushCount = 0;
+
+	/**
+	 * Pushes a listener for the event type and its subtypes.
+	 * The type doesn't have to extend the base type, it can be an interface some events implement.
+	 * @param pool HandlerPool
+	 * @param type event type
+	 * @param listener listener
+	 * @param <T> event type
+	 */
+	public <T> void push(HandlerPool pool, @NonNull Class<T> type, @NonNull Consumer<? super T> listener) {
+		Listener<T> entry = new Listener<>(pool, type, listener, pushed++);
+		listenersByType.computeIfAbsent(type, k -> new LinkedHashSet<>(AbstractPoolCollection.DEFAULT_COLLECTION_SIZE)).add(entry);
+
+		List<Listener<?>> listeners = listenersByPool.get(pool);
+		if(listeners == null) {
+			listeners = new ArrayList<>(AbstractPoolCollection.DEFAULT_COLLECTION_SIZE);
+			listenersByPool.put(pool, listeners);
+			pool.getPushedStacks().add(this);
+		}
+		listeners.add(entry);
+		pushCount++;
+
+		invalidate(type);
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPush(this, pool);
+	}
+
+	/**
+	 * Pushes a listener for every event.
+	 * @param pool HandlerPool
+	 * @param obj listener
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void push(HandlerPool pool, Consumer<? super E> obj) {
+		// every event is an E, so a listener for Object receives all of them
+		push(pool, (Class<E>) (Class<?>) Object.class, obj);
+	}
+
+	/**
+	 * Removes the listeners the pool pushed for the event type. Listeners pushed for its subtypes are kept.
+	 * @param pool HandlerPool
+	 * @param type event type
+	 * @return true if anything was removed, false if the pool didn't push a listener for the type
+	 */
+	public boolean pop(HandlerPool pool, Class<?> type) {
+		List<Listener<?>> listeners = listenersByPool.get(pool);
+		if(listeners == null) return false;
+
+		boolean removed = false;
+		for(Iterator<Listener<?>> iterator = listeners.iterator(); iterator.hasNext(); ) {
+			Listener<?> listener = iterator.next();
+			if(listener.type != type) continue;
+
+			iterator.remove();
+			unlink(listener);
+			removed = true;
+		}
+		if(!removed) return false;
+
+		if(listeners.isEmpty()) {
+			listenersByPool.remove(pool);
+			pool.getPushedStacks().remove(this);
+		}
+
+		invalidate(type);
+		return true;
+	}
+
+	/**
+	 * Removes every listener the pool pushed, for all types.
+	 * Only the types the pool pushed listeners for are visited,
+	 * and only the dispatch tables of classes assignable to those types are dropped.
+	 * @param pool HandlerPool
+	 * @return true if anything was removed, false if not pushed by the pool
+	 */
+	@Override
+	public boolean pop(HandlerPool pool) {
+		List<Listener<?>> listeners = listenersByPool.remove(pool);
+		if(listeners == null) return false;
+
+		pool.getPushedStacks().remove(this);
+
+		Class<?> previous = null;
+		for(Listener<?> listener : listeners) {
+			unlink(listener);
+
+			// a pool's listeners for one type are usually pushed together, skip repeats cheaply
+			// types seen earlier are invalidated again, but have no tables left to drop
+			Class<?> type = listener.type;
+			if(type != previous) {
+				invalidate(type);
+				previous = type;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Calls every listener pushed for the class of the event or any of its supertypes, in push order.
+	 * @param event event
+	 * @return true if any listener received the event
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean post(@NonNull E event) {
+		Listener<?>[] table = getTable(event.getClass());
+		for(Listener<?> listener : table) {
+			((Consumer<Object>) listener.listener).accept(event);
+		}
+		return table.length != 0;
+	}
+
+	/**
+	 * @param type event class
+	 * @return true if posting an event of exactly this class would call any listener
+	 */
+	public boolean hasListeners(Class<? extends E> type) {
+		return getTable(type).length != 0;
+	}
+
+	/**
+	 * @param pool HandlerPool
+	 * @return amount of listeners the pool pushed
+	 */
+	public int getPushCount(HandlerPool pool) {
+		List<Listener<?>> listeners = listenersByPool.get(pool);
+		return listeners == null ? 0 : listeners.size();
+	}
+
+	/**
+	 * @return amount of listeners pushed, for all types
+	 */
+	@Override
+	public int getPushCount() {
+		return pushCount;
+	}
+
+	private Listener<?>[] getTable(Class<?> type) {
+		Listener<?>[] table = tables.get(type);
+		if(table == null) {
+			table = buildTable(type);
+			tables.put(type, table);
+		}
+		return table;
+	}
+
+	private Listener<?>[] buildTable(Class<?> eventClass) {
+		List<Listener<?>> result = null;
+		int types = 0;
+
+		for(Map.Entry<Class<?>, Set<Listener<?>>> entry : listenersByType.entrySet()) {
+			if(!entry.getKey().isAssignableFrom(eventClass)) continue;
+
+			if(result == null) result = new ArrayList<>();
+			result.addAll(entry.getValue());
+			types++;
+		}
+
+		if(result == null) return NO_LISTENERS;
+		if(types > 1) {
+			// each type's listeners are already in push order, interleave them
+			result.sort(Comparator.comparingLong(listener -> listener.sequence));
+		}
+		return result.toArray(NO_LISTENERS);
+	}
+
+	// removes the listener from its type, O(1)
+	private void unlink(Listener<?> listener) {
+		Set<Listener<?>> listeners = listenersByType.get(listener.type);
+		listeners.remove(listener);
+		if(listeners.isEmpty()) {
+			listenersByType.remove(listener.type);
+		}
+
+		pushCount--;
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPop(this, listener.pool);
+	}
+
+	// drops the tables of classes the type's listeners apply to
+	private void invalidate(Class<?> type) {
+		if(tables.isEmpty()) return;
+
+		if(type == Object.class) {
+			tables.clear();
+		} else {
+			tables.keySet().removeIf(type::isAssignableFrom);
+		}
+	}
+
+	// not a record, so equality is identity and two pushes of the same listener stay apart
+	private static final class Listener<T> {
+		private final HandlerPool pool;
+		private final Class<T> type;
+		private final Consumer<? super T> listener;
+		private final long sequence;
+
+		private Listener(HandlerPool pool, Class<T> type, Consumer<? super T> listener, long sequence) {
+			this.pool = pool;
+			this.type = type;
+			this.listener = listener;
+			this.sequence = sequence;
+		}
+	}
+}
\ No newline at end of file
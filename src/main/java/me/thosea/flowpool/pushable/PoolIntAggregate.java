@@ -0,0 +1,104 @@
+package me.thosea.flowpool.pushable;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+
+import java.util.Comparator;
+
+/**
+ * {@link PoolAggregate} of ints, read without boxing with {@link #getAsInt()}.
+ * Create one with {@link #sum()}, {@link #min(int)} or {@link #max(int)}.
+ * Pushed ints are still boxed in their {@link PoolEntry}, like any other pushable.
+ */
+public final class PoolIntAggregate extends PoolAggregate<Integer, Integer> {
+	private final Kind kind;
+	private final int emptyValue;
+	private final EntryHeap<Integer> heap; // null for sums
+	private int sum = 0;
+
+	private PoolIntAggregate(Kind kind, int emptyValue) {
+		this.kind = kind;
+		this.emptyValue = emptyValue;
+		this.heap = switch(kind) {
+			case SUM -> null;
+			case MIN -> new EntryHeap<>(Comparator.naturalOrder(), DEFAULT_COLLECTION_SIZE);
+			case MAX -> new EntryHeap<>(Comparator.reverseOrder(), DEFAULT_COLLECTION_SIZE);
+		};
+	}
+
+	/**
+	 * Creates an aggregate of the sum of the pushed ints, which is zero if there are none.
+	 * Overflow wraps around. Pushes and pops are O(1).
+	 * @return new aggregate
+	 */
+	public static PoolIntAggregate sum() {
+		return new PoolIntAggregate(Kind.SUM, 0);
+	}
+
+	/**
+	 * Creates an aggregate of the least pushed int. Pushes and pops are O(log n).
+	 * @param emptyValue value if nothing is pushed
+	 * @return new aggregate
+	 */
+	public static PoolIntAggregate min(int emptyValue) {
+		return new PoolIntAggregate(Kind.MIN, emptyValue);
+	}
+
+	/**
+	 * Creates an aggregate of the greatest pushed int. Pushes and pops are O(log n).
+	 * @param emptyValue value if nothing is pushed
+	 * @return new aggregate
+	 */
+	public static PoolIntAggregate max(int emptyValue) {
+		return new PoolIntAggregate(Kind.MAX, emptyValue);
+	}
+
+	/**
+	 * Pushes the int, adding it to the aggregate. It is boxed into its entry.
+	 * @param pool HandlerPool
+	 * @param value int to push
+	 */
+	public void push(HandlerPool pool, int value) {
+		push(pool, Integer.valueOf(value));
+	}
+
+	/**
+	 * @return aggregate of the pushed ints
+	 */
+	public int getAsInt() {
+		if(heap == null) return sum;
+
+		PoolEntry<Integer> entry = heap.first();
+		return entry == null ? emptyValue : entry.obj();
+	}
+
+	/**
+	 * @return {@link #getAsInt()}, boxed
+	 */
+	@Override
+	public Integer get() {
+		return getAsInt();
+	}
+
+	@Override
+	protected void added(PoolEntry<Integer> entry) {
+		if(heap == null) {
+			sum += entry.obj();
+		} else {
+			heap.add(entry, 0);
+		}
+	}
+
+	@Override
+	protected void removed(PoolEntry<Integer> entry) {
+		if(heap == null) {
+			sum -= entry.obj();
+		} else {
+			heap.remove(entry.pool());
+		}
+	}
+
+	private enum Kind {
+		SUM, MIN, MAX
+	}
+}
\ No newline at end of file
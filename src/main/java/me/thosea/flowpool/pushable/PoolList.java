@@ -1,14 +1,20 @@
 package me.thosea.flowpool.pushable;
 
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import me.thosea.flowpool.HandlerPool;
 import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.jfr.PushableCallbackEvent;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * First-in, last-iterated pushable managed by {@link HandlerPool}s.
@@ -36,6 +42,21 @@ public class PoolList<T> extends AbstractPoolCollection<T> {
 		this.list = new ArrayList<>(initialCapacity);
 	}
 
+	private PoolList(List<PoolEntry<T>> list) {
+		this.list = list;
+	}
+
+	/**
+	 * Constructs a new PoolList backed by an {@link IndexedEntryList},
+	 * making pops and {@link #getPushEntry(HandlerPool)} O(1) instead of O(n).
+	 * Iteration order is the same as a normal PoolList.
+	 * @return indexed PoolList
+	 * @param <T> type
+	 */
+	public static <T> PoolList<T> indexed() {
+		return new PoolList<>(new IndexedEntryList<>());
+	}
+
 	/**
 	 * Pushes the object to the back of the list.
 	 * It will be the last objected iterated over until another object is pushed.
@@ -57,6 +78,44 @@ public class PoolList<T> extends AbstractPoolCollection<T> {
 		doPush(pool, obj, true);
 	}
 
+	/**
+	 * Calls the action with every entry, from the last pushed to the first pushed.
+	 * Doesn't allocate an iterator unless the backing list is neither random-access nor indexed.
+	 * Don't push or pop in the action.
+	 * @param action action to call
+	 * @see #forEachEntry(Consumer)
+	 */
+	public void forEachEntryReversed(@NonNull Consumer<? super T> action) {
+		if(list instanceof RandomAccess || list instanceof IndexedEntryList) {
+			for(int i = list.size() - 1; i >= 0; i--) {
+				action.accept(list.get(i).obj());
+			}
+		} else {
+			ListIterator<PoolEntry<T>> iterator = list.listIterator(list.size());
+			while(iterator.hasPrevious()) {
+				action.accept(iterator.previous().obj());
+			}
+		}
+	}
+
+	/**
+	 * @return iterator over the entries, from the last pushed to the first pushed
+	 */
+	public Iterator<T> descendingIterator() {
+		ListIterator<PoolEntry<T>> iterator = list.listIterator(list.size());
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasPrevious();
+			}
+
+			@Override
+			public T next() {
+				return iterator.previous().obj();
+			}
+		};
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -76,15 +135,11 @@ public class PoolList<T> extends AbstractPoolCollection<T> {
 
 	@Override
 	protected void onPush(PoolEntry<T> entry) {
-		if(pushCallback != null) {
-			pushCallback.accept(this, entry);
-		}
+		PushableCallbackEvent.call(this, true, pushCallback, entry);
 	}
 
 	@Override
 	protected void onPop(PoolEntry<T> entry) {
-		if(popCallback != null) {
-			popCallback.accept(this, entry);
-		}
+		PushableCallbackEvent.call(this, false, popCallback, entry);
 	}
 }
\ No newline at end of file
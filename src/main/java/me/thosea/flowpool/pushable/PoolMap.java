@@ -0,0 +1,278 @@
+package me.thosea.flowpool.pushable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.IPoolPushable;
+import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.jfr.PushableCallbackEvent;
+import me.thosea.flowpool.metrics.PoolMetrics;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keyed pushable managed by {@link HandlerPool}s, like a map of {@link PoolStack}s.<br>
+ * A pool can push a value for any amount of keys, but is only added to {@link HandlerPool#getPushedStacks()} once.
+ * Each key has its own stack, {@link #get(Object)} returns the value most recently pushed for it in O(1).<p>
+ * The keys each pool pushed are tracked, so {@link #pop(HandlerPool)} and {@link HandlerPool#close()}
+ * remove all of them in one pass without visiting other keys.
+ * Popping a single key is O(1).
+ * @param <K> key type
+ * @param <V> value type
+ */
+@Accessors(fluent = true)
+@Getter
+@Setter
+public class PoolMap<K, V> implements IPoolPushable<Map.Entry<K, V>> {
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+	private final Map<K, IndexedEntryList<V>> stacks;
+	// keys pushed by each pool, in push order
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+	private final Map<HandlerPool, Set<K>> keysByPool = new IdentityHashMap<>();
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+	private int pushCount = 0;
+	// incremented on every push, so pop(pool) notices pushes made by its callbacks
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+	private int pushSequence = 0;
+
+	private KeyCallback<K, V> pushCallback;
+	private KeyCallback<K, V> popCallback;
+
+	/**
+	 * Constructs a new PoolMap.
+	 */
+	public PoolMap() {
+		this.stacks = new HashMap<>();
+	}
+
+	/**
+	 * Constructs a new PoolMap with the specified initial capacity.
+	 * @param initialCapacity initial capacity of keys
+	 */
+	public PoolMap(int initialCapacity) {
+		this.stacks = new HashMap<>(initialCapacity);
+	}
+
+	/**
+	 * Pushes the value for the key, it will be returned by {@link #get(Object)} until another value is pushed for it.
+	 * If the pool already pushed a value for the key, that value is popped first.
+	 * @param pool HandlerPool
+	 * @param key key
+	 * @param value value to push
+	 */
+	public void push(HandlerPool pool, @NonNull K key, V value) {
+		IndexedEntryList<V> stack = stacks.get(key);
+		if(stack != null && stack.containsPool(pool)) {
+			if(!this.pop(pool, key)) {
+				// pushed from a callback of pop(pool), which hasn't reached this key yet
+				removeEntry(pool, key);
+			}
+			stack = stacks.get(key);
+		}
+
+		if(stack == null) {
+			stack = new IndexedEntryList<>();
+			stacks.put(key, stack);
+		}
+
+		PoolEntry<V> entry = new PoolEntry<>(pool, value);
+		stack.addFirst(entry);
+		pushCount++;
+		pushSequence++;
+
+		Set<K> keys = keysByPool.get(pool);
+		if(keys == null) {
+			keys = new LinkedHashSet<>(AbstractPoolCollection.DEFAULT_COLLECTION_SIZE);
+			keysByPool.put(pool, keys);
+			pool.getPushedStacks().add(this);
+		}
+		keys.add(key);
+
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPush(this, pool);
+		if(pushCallback != null) {
+			PushableCallbackEvent.run(this, true, () -> pushCallback.accept(this, key, entry));
+		}
+	}
+
+	/**
+	 * Pushes the value for the key of the entry.
+	 * @param pool HandlerPool
+	 * @param obj key and value to push
+	 * @see #push(HandlerPool, Object, Object)
+	 */
+	@Override
+	public void push(HandlerPool pool, Map.Entry<K, V> obj) {
+		push(pool, obj.getKey(), obj.getValue());
+	}
+
+	/**
+	 * Removes the value the pool pushed for the key.
+	 * @param pool HandlerPool
+	 * @param key key
+	 * @return true if the value was removed, false if the pool didn't push one for the key
+	 */
+	public boolean pop(HandlerPool pool, K key) {
+		Set<K> keys = keysByPool.get(pool);
+		if(keys == null || !keys.remove(key)) return false;
+
+		if(keys.isEmpty()) {
+			keysByPool.remove(pool);
+			pool.getPushedStacks().remove(this);
+		}
+
+		removeEntry(pool, key);
+		return true;
+	}
+
+	/**
+	 * Removes every value the pool pushed, for all keys.
+	 * @param pool HandlerPool
+	 * @return true if anything was removed, false if not pushed by the pool
+	 */
+	@Override
+	public boolean pop(HandlerPool pool) {
+		Set<K> keys = keysByPool.remove(pool);
+		if(keys == null) return false;
+
+		pool.getPushedStacks().remove(this);
+
+		// keys pop callbacks pushed again for the pool, looked up only after a push happened
+		Set<K> repushed = null;
+		int sequence = pushSequence;
+		for(K key : keys) {
+			if(sequence != pushSequence) {
+				sequence = pushSequence;
+				repushed = keysByPool.get(pool);
+			}
+
+			// pushing the key again already removed the old value
+			if(repushed != null && repushed.contains(key)) continue;
+
+			removeEntry(pool, key);
+		}
+		return true;
+	}
+
+	/**
+	 * @param key key
+	 * @return value most recently pushed for the key, or null if there is none
+	 */
+	@Nullable
+	public V get(K key) {
+		IndexedEntryList<V> stack = stacks.get(key);
+		return stack == null ? null : stack.getFirst().obj();
+	}
+
+	/**
+	 * @param key key
+	 * @param defaultValue value if nothing is pushed for the key
+	 * @return value most recently pushed for the key, or the default value if there is none
+	 */
+	public V getOrDefault(K key, V defaultValue) {
+		IndexedEntryList<V> stack = stacks.get(key);
+		return stack == null ? defaultValue : stack.getFirst().obj();
+	}
+
+	/**
+	 * @param key key
+	 * @return entry most recently pushed for the key, or null if there is none
+	 */
+	@Nullable
+	public PoolEntry<V> getEntry(K key) {
+		IndexedEntryList<V> stack = stacks.get(key);
+		return stack == null ? null : stack.getFirst();
+	}
+
+	/**
+	 * @param pool HandlerPool
+	 * @param key key
+	 * @return value the pool pushed for the key, or null if it didn't push one
+	 */
+	@Nullable
+	public PoolEntry<V> getPushEntry(HandlerPool pool, K key) {
+		IndexedEntryList<V> stack = stacks.get(key);
+		return stack == null ? null : stack.getEntry(pool);
+	}
+
+	/**
+	 * @param key key
+	 * @return unmodifiable view of the entries pushed for the key, most recent first
+	 */
+	public List<PoolEntry<V>> getEntries(K key) {
+		IndexedEntryList<V> stack = stacks.get(key);
+		return stack == null ? List.of() : Collections.unmodifiableList(stack);
+	}
+
+	/**
+	 * @param key key
+	 * @return true if any pool pushed a value for the key
+	 */
+	public boolean containsKey(K key) {
+		return stacks.containsKey(key);
+	}
+
+	/**
+	 * @return unmodifiable view of the keys with a pushed value
+	 */
+	public Set<K> keySet() {
+		return Collections.unmodifiableSet(stacks.keySet());
+	}
+
+	/**
+	 * @param pool HandlerPool
+	 * @return unmodifiable view of the keys the pool pushed, in push order
+	 */
+	public Set<K> getKeys(HandlerPool pool) {
+		Set<K> keys = keysByPool.get(pool);
+		return keys == null ? Set.of() : Collections.unmodifiableSet(keys);
+	}
+
+	/**
+	 * @return amount of values pushed, for all keys
+	 */
+	@Override
+	public int getPushCount() {
+		return pushCount;
+	}
+
+	private void removeEntry(HandlerPool pool, K key) {
+		IndexedEntryList<V> stack = stacks.get(key);
+		PoolEntry<V> entry = stack == null ? null : stack.removeEntry(pool);
+		if(entry == null) return;
+
+		if(stack.isEmpty()) {
+			stacks.remove(key);
+		}
+		pushCount--;
+
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPop(this, pool);
+		if(popCallback != null) {
+			PushableCallbackEvent.run(this, false, () -> popCallback.accept(this, key, entry));
+		}
+	}
+
+	/**
+	 * Callback of a {@link PoolMap} push or pop.
+	 * @param <K> key type
+	 * @param <V> value type
+	 */
+	@FunctionalInterface
+	public interface KeyCallback<K, V> {
+		/**
+		 * @param map map that was pushed or popped
+		 * @param key key the value was pushed for
+		 * @param entry pushed or popped entry
+		 */
+		void accept(PoolMap<K, V> map, K key, PoolEntry<V> entry);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,186 @@
+package me.thosea.flowpool.pushable;
+
+import lombok.Getter;
+import lombok.NonNull;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * {@link PoolPipeline} that caches the results of {@link #executeMemoized(Object, BiFunction, Object)} by key,
+ * for pipelines whose result only depends on their arguments and current handlers.<p>
+ * The cache holds at most {@link #getMaxSize()} results and evicts the least recently used one.
+ * Every push or pop bumps the {@link #getGeneration() generation}, and the whole cache is dropped
+ * on the next memoized execution after that, so pushing many handlers at once clears it only once.<br>
+ * Handlers can't see whether a result was cached, so they shouldn't have side effects.
+ * The other execute methods work like they do in {@link PoolPipeline} and don't use the cache.
+ * @param <T> handler type - this should be an interface with a {@link PipelineContext} parameter
+ * @param <K> key type, which should describe every argument passed to the handlers
+ * @param <R> return type, this should be returned by the handler type
+ */
+public class PoolMemoizedPipeline<T, K, R> extends PoolPipeline<T, R> {
+	private static final Object NULL = new Object(); // cached null result
+
+	/**
+	 * Maximum amount of cached results.
+	 */
+	@Getter private final int maxSize;
+	private final LinkedHashMap<K, Object> cache;
+
+	/**
+	 * Incremented when handlers are pushed or popped.
+	 */
+	@Getter private long generation = 0;
+	private long cacheGeneration = 0;
+
+	/**
+	 * Amount of memoized executions that used a cached result.
+	 */
+	@Getter private long hits = 0;
+	/**
+	 * Amount of memoized executions that ran the pipeline.
+	 */
+	@Getter private long misses = 0;
+	/**
+	 * Amount of results evicted to stay under {@link #getMaxSize()}, not counting ones dropped by pushes and pops.
+	 */
+	@Getter private long evictions = 0;
+
+	/**
+	 * Constructs a new PoolMemoizedPipeline.
+	 * @param maxSize maximum amount of cached results
+	 * @throws IllegalArgumentException if maxSize isn't positive
+	 */
+	public PoolMemoizedPipeline(int maxSize) {
+		this.maxSize = checkMaxSize(maxSize);
+		this.cache = createCache();
+	}
+
+	/**
+	 * Constructs a new PoolMemoizedPipeline with the specified backing list.
+	 * @param maxSize maximum amount of cached results
+	 * @param list backing list, should be empty
+	 * @throws IllegalArgumentException if maxSize isn't positive
+	 */
+	protected PoolMemoizedPipeline(int maxSize, List<PoolEntry<T>> list) {
+		super(list);
+		this.maxSize = checkMaxSize(maxSize);
+		this.cache = createCache();
+	}
+
+	/**
+	 * Constructs a new PoolMemoizedPipeline backed by an {@link IndexedEntryList},
+	 * making pops and {@link #getPushEntry(HandlerPool)} O(1) instead of O(n).
+	 * @param maxSize maximum amount of cached results
+	 * @return indexed PoolMemoizedPipeline
+	 * @param <T> handler type
+	 * @param <K> key type
+	 * @param <R> return type
+	 */
+	public static <T, K, R> PoolMemoizedPipeline<T, K, R> indexed(int maxSize) {
+		return new PoolMemoizedPipeline<>(maxSize, new IndexedEntryList<>());
+	}
+
+	/**
+	 * Returns the cached result for the key, or executes the pipeline and caches its result. Example: <pre>{@code
+	 * int modifier = pipeline.executeMemoized(level, (initial, ctx) -> {
+	 *     return initial.call(level, ctx);
+	 * }, (level, ctx) -> level * 2);
+	 * }</pre>
+	 * The key should be equal for calls passing equal arguments, and {@code bottomEntry} should behave the same every call.
+	 * Results computed while a push or pop is applied, like by a nested execution, aren't cached.<br>
+	 * Handlers are executed in order of first pushed to last pushed, like {@link #execute(BiFunction, Object)}.
+	 * @param key key of the arguments
+	 * @param initialCaller will be called with the first entry, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @return cached or new result of execution
+	 */
+	@SuppressWarnings("unchecked")
+	public R executeMemoized(@NonNull K key,
+	                         @NonNull BiFunction<T, PipelineContext, R> initialCaller,
+	                         @NotNull T bottomEntry) {
+		if(cacheGeneration != generation) {
+			cache.clear();
+			cacheGeneration = generation;
+		}
+
+		Object cached = cache.get(key);
+		if(cached != null) {
+			hits++;
+			return cached == NULL ? null : (R) cached;
+		}
+
+		misses++;
+		long startGeneration = generation;
+		R result = this.execute(initialCaller, bottomEntry);
+		if(generation == startGeneration) {
+			cache.put(key, result == null ? NULL : result);
+		}
+		return result;
+	}
+
+	/**
+	 * @return amount of cached results, including outdated ones that are dropped on the next memoized execution
+	 */
+	public int getCacheSize() {
+		return cache.size();
+	}
+
+	/**
+	 * @return ratio of memoized executions that used a cached result, zero if there were none
+	 */
+	public double getHitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * Drops every cached result.
+	 */
+	public void clearCache() {
+		cache.clear();
+	}
+
+	/**
+	 * Resets {@link #getHits()}, {@link #getMisses()} and {@link #getEvictions()} to zero.
+	 */
+	public void resetStats() {
+		hits = misses = evictions = 0;
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * Also bumps the {@link #getGeneration() generation}, dropping the cache on the next memoized execution.
+	 */
+	@Override
+	public void invalidateHandlers() {
+		super.invalidateHandlers();
+		this.generation++;
+	}
+
+	private LinkedHashMap<K, Object> createCache() {
+		return new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Object> eldest) {
+				if(size() > maxSize) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	private static int checkMaxSize(int maxSize) {
+		if(maxSize <= 0) {
+			throw new IllegalArgumentException("Max size must be positive: " + maxSize);
+		}
+		return maxSize;
+	}
+}
\ No newline at end of file
@@ -1,24 +1,43 @@
 package me.thosea.flowpool.pushable;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import me.thosea.flowpool.HandlerPool;
 import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.jfr.PipelineExecuteEvent;
+import me.thosea.flowpool.jfr.PushableCallbackEvent;
+import me.thosea.flowpool.metrics.PoolMetrics;
+import me.thosea.flowpool.pipeline.BooleanOperator;
+import me.thosea.flowpool.pipeline.DoubleOperator;
+import me.thosea.flowpool.pipeline.FloatOperator;
+import me.thosea.flowpool.pipeline.IntOperator;
+import me.thosea.flowpool.pipeline.LongOperator;
+import me.thosea.flowpool.pipeline.ToFloatBiFunction;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToIntBiFunction;
+import java.util.function.ToLongBiFunction;
 
 /**
  * First-in, first-iterated pushable of handlers managed by {@link HandlerPool}s.<br>
  * It is a pipeline-a callback in the pushable can not call the next handler,
- * or change the parameters before calling {@link PipelineContext#pass()}.
+ * or change the parameters before calling {@link PipelineContext#pass()}.<br>
+ * Modifications made during execution are queued and applied in call order once it finishes,
+ * see {@link me.thosea.flowpool.concurrent.ConcurrentPoolPipeline} for a pipeline that applies them right away.
  * @param <T> handler type - this should be an interface with a {@link PipelineContext} parameter,
  * basic ones are provided in {@code me.thosea.flowpool.pipeline} package
  * @param <R> return type, this should be returned by the handler type
@@ -33,7 +52,31 @@ public class PoolPipeline<T, R> extends AbstractPoolCollection<T> {
 	@Getter @Setter
 	private BiConsumer<PoolPipeline<T, R>, PoolEntry<T>> popCallback;
 
-	protected final Map<HandlerPool, Runnable> queuedModifications = new HashMap<>();
+	// modifications made during execution, applied in call order once depth returns to zero
+	// parallel arrays reused between executions, allocated on the first queued modification
+	private static final byte OP_PUSH = 0;
+	private static final byte OP_PUSH_LAST = 1;
+	private static final byte OP_POP = 2;
+	private static final byte OP_PUSH_PRIORITY = 3;
+
+	private byte[] queuedOps;
+	private HandlerPool[] queuedPools;
+	private Object[] queuedHandlers;
+	private int[] queuedPriorities;
+	private int queuedCount = 0;
+	private boolean flushingQueue = false;
+
+
+	// priorities of entries pushed with one, allocated on the first such push
+	// entries pushed without a priority count as zero
+	private Map<HandlerPool, Integer> priorities;
+	// priority of the push in progress, read and cleared by doAdd
+	// so pushes made from the push callback don't see it
+	private boolean pushPrioritized = false;
+	private int pushPriority;
+
+	// replaced (never modified) when membership changes, so contexts can keep executing over the array they started with
+	private final HandlerCache handlers = new HandlerCache();
 
 	protected PipelineContext context = new PipelineContext();
 	/**
@@ -56,6 +99,26 @@ public class PoolPipeline<T, R> extends AbstractPoolCollection<T> {
 		this.list = new ArrayList<>(initialCapacity);
 	}
 
+	/**
+	 * Constructs a new PoolPipeline with the specified backing list.
+	 * @param list backing list, should be empty
+	 */
+	protected PoolPipeline(List<PoolEntry<T>> list) {
+		this.list = list;
+	}
+
+	/**
+	 * Constructs a new PoolPipeline backed by an {@link IndexedEntryList},
+	 * making pops and {@link #getPushEntry(HandlerPool)} O(1) instead of O(n).
+	 * Execution order is the same as a normal PoolPipeline.
+	 * @return indexed PoolPipeline
+	 * @param <T> handler type
+	 * @param <R> return type
+	 */
+	public static <T, R> PoolPipeline<T, R> indexed() {
+		return new PoolPipeline<>(new IndexedEntryList<>());
+	}
+
 	/**
 	 * Pushes the handler to the back of the list.<br>
 	 * It is executed in reverse order, so the handler will be the first executed.<p>
@@ -68,7 +131,7 @@ public class PoolPipeline<T, R> extends AbstractPoolCollection<T> {
 		if(depth == 0) {
 			doPush(pool, obj, false);
 		} else {
-			queuedModifications.put(pool, () -> this.push(pool, obj));
+			queueModification(OP_PUSH, pool, obj, 0);
 		}
 	}
 
@@ -83,10 +146,51 @@ public class PoolPipeline<T, R> extends AbstractPoolCollection<T> {
 		if(depth == 0) {
 			doPush(pool, obj, true);
 		} else {
-			queuedModifications.put(pool, () -> this.pushLast(pool, obj));
+			queueModification(OP_PUSH_LAST, pool, obj, 0);
 		}
 	}
 
+	/**
+	 * Pushes the handler ordered by priority: it is executed after handlers with a higher priority
+	 * and before ones with a lower or the same priority.
+	 * Handlers pushed with {@link #push(HandlerPool, Object)} or {@link #pushLast(HandlerPool, Object)}
+	 * count as a priority of zero, but they are still added to their end of the list.
+	 * Finding the position is O(n), like inserting into the list.<p>
+	 * If this is called during execution, it will be queued and executed once execution finishes.
+	 * @param pool HandlerPool
+	 * @param obj handler
+	 * @param priority priority, higher is executed first
+	 */
+	public void push(HandlerPool pool, T obj, int priority) {
+		if(depth == 0) {
+			// pop first, so pop callbacks pushing again don't see the pending priority
+			if(pool.isPushing(this)) {
+				this.pop(pool);
+			}
+
+			this.pushPrioritized = true;
+			this.pushPriority = priority;
+			try {
+				doPush(pool, obj, false);
+			} finally {
+				this.pushPrioritized = false;
+			}
+		} else {
+			queueModification(OP_PUSH_PRIORITY, pool, obj, priority);
+		}
+	}
+
+	/**
+	 * @param pool HandlerPool
+	 * @return priority the pool pushed with, zero if pushed without one or not pushed
+	 */
+	public int getPriority(HandlerPool pool) {
+		if(priorities == null) return 0;
+
+		Integer priority = priorities.get(pool);
+		return priority == null ? 0 : priority;
+	}
+
 	/**
 	 * If this is called during execution, it will be queued and executed once execution finishes,
 	 * and this method will return false even if the pool does push this.
@@ -98,7 +202,7 @@ public class PoolPipeline<T, R> extends AbstractPoolCollection<T> {
 		if(depth == 0) {
 			return super.pop(pool);
 		} else {
-			queuedModifications.put(pool, () -> this.pop(pool));
+			queueModification(OP_POP, pool, null, 0);
 			return false;
 		}
 	}
@@ -114,7 +218,7 @@ public class PoolPipeline<T, R> extends AbstractPoolCollection<T> {
 		if(depth == 0) {
 			return super.popAndGet(pool);
 		} else {
-			queuedModifications.put(pool, () -> this.pop(pool));
+			queueModification(OP_POP, pool, null, 0);
 			return null;
 		}
 	}
@@ -223,6 +327,395 @@ public class PoolPipeline<T, R> extends AbstractPoolCollection<T> {
 		}
 	}
 
+	/**
+	 * Executes the pipeline and returns a {@code int} result without boxing.
+	 * Meant for handlers like {@link IntOperator}, example: <pre>{@code
+	 * int result = pipeline.executeInt((initial, ctx) -> {
+	 *   return initial.call(someValue, ctx);
+	 * }, (value, ctx) -> value);
+	 * }</pre>
+	 * Handlers are executed in order of first pushed to last pushed, see {@link #execute(BiFunction, Object)}.
+	 * @param initialCaller will be called with the first entry, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @return result of execution
+	 */
+	public int executeInt(@NonNull ToIntBiFunction<T, PipelineContext> initialCaller,
+	                     @NotNull T bottomEntry) {
+		PipelineContext ctx = this.getContext(bottomEntry, false);
+		try {
+			return initialCaller.applyAsInt(ctx.pass(), ctx);
+		} finally {
+			this.releaseContext(ctx);
+		}
+	}
+
+	/**
+	 * Executes the pipeline and returns a {@code int} result without boxing.
+	 * Meant for handlers like {@link IntOperator}, example: <pre>{@code
+	 * int result = pipeline.executeReversedInt((initial, ctx) -> {
+	 *   return initial.call(someValue, ctx);
+	 * }, (value, ctx) -> value);
+	 * }</pre>
+	 * Handlers are executed in order of last pushed to first pushed, see {@link #executeReversed(BiFunction, Object)}.
+	 * @param initialCaller will be called with the first entry, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @return result of execution
+	 */
+	public int executeReversedInt(@NonNull ToIntBiFunction<T, PipelineContext> initialCaller,
+	                             @NotNull T bottomEntry) {
+		PipelineContext ctx = this.getContext(bottomEntry, true);
+		try {
+			return initialCaller.applyAsInt(ctx.pass(), ctx);
+		} finally {
+			this.releaseContext(ctx);
+		}
+	}
+
+	/**
+	 * Executes the pipeline and returns a {@code long} result without boxing.
+	 * Meant for handlers like {@link LongOperator}, example: <pre>{@code
+	 * long result = pipeline.executeLong((initial, ctx) -> {
+	 *   return initial.call(someValue, ctx);
+	 * }, (value, ctx) -> value);
+	 * }</pre>
+	 * Handlers are executed in order of first pushed to last pushed, see {@link #execute(BiFunction, Object)}.
+	 * @param initialCaller will be called with the first entry, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @return result of execution
+	 */
+	public long executeLong(@NonNull ToLongBiFunction<T, PipelineContext> initialCaller,
+	                       @NotNull T bottomEntry) {
+		PipelineContext ctx = this.getContext(bottomEntry, false);
+		try {
+			return initialCaller.applyAsLong(ctx.pass(), ctx);
+		} finally {
+			this.releaseContext(ctx);
+		}
+	}
+
+	/**
+	 * Executes the pipeline and returns a {@code long} result without boxing.
+	 * Meant for handlers like {@link LongOperator}, example: <pre>{@code
+	 * long result = pipeline.executeReversedLong((initial, ctx) -> {
+	 *   return initial.call(someValue, ctx);
+	 * }, (value, ctx) -> value);
+	 * }</pre>
+	 * Handlers are executed in order of last pushed to first pushed, see {@link #executeReversed(BiFunction, Object)}.
+	 * @param initialCaller will be called with the first entry, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @return result of execution
+	 */
+	public long executeReversedLong(@NonNull ToLongBiFunction<T, PipelineContext> initialCaller,
+	                               @NotNull T bottomEntry) {
+		PipelineContext ctx = this.getContext(bottomEntry, true);
+		try {
+			return initialCaller.applyAsLong(ctx.pass(), ctx);
+		} finally {
+			this.releaseContext(ctx);
+		}
+	}
+
+	/**
+	 * Executes the pipeline and returns a {@code float} result without boxing.
+	 * Meant for handlers like {@link FloatOperator}, example: <pre>{@code
+	 * float result = pipeline.executeFloat((initial, ctx) -> {
+	 *   return initial.call(someValue, ctx);
+	 * }, (value, ctx) -> value);
+	 * }</pre>
+	 * Handlers are executed in order of first pushed to last pushed, see {@link #execute(BiFunction, Object)}.
+	 * @param initialCaller will be called with the first entry, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @return result of execution
+	 */
+	public float executeFloat(@NonNull ToFloatBiFunction<T, PipelineContext> initialCaller,
+	                         @NotNull T bottomEntry) {
+		PipelineContext ctx = this.getContext(bottomEntry, false);
+		try {
+			return initialCaller.applyAsFloat(ctx.pass(), ctx);
+		} finally {
+			this.releaseContext(ctx);
+		}
+	}
+
+	/**
+	 * Executes the pipeline and returns a {@code float} result without boxing.
+	 * Meant for handlers like {@link FloatOperator}, example: <pre>{@code
+	 * float result = pipeline.executeReversedFloat((initial, ctx) -> {
+	 *   return initial.call(someValue, ctx);
+	 * }, (value, ctx) -> value);
+	 * }</pre>
+	 * Handlers are executed in order of last pushed to first pushed, see {@link #executeReversed(BiFunction, Object)}.
+	 * @param initialCaller will be called with the first entry, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @return result of execution
+	 */
+	public float executeReversedFloat(@NonNull ToFloatBiFunction<T, PipelineContext> initialCaller,
+	                                 @NotNull T bottomEntry) {
+		PipelineContext ctx = this.getContext(bottomEntry, true);
+		try {
+			return initialCaller.applyAsFloat(ctx.pass(), ctx);
+		} finally {
+			this.releaseContext(ctx);
+		}
+	}
+
+	/**
+	 * Executes the pipeline and returns a {@code double} result without boxing.
+	 * Meant for handlers like {@link DoubleOperator}, example: <pre>{@code
+	 * double result = pipeline.executeDouble((initial, ctx) -> {
+	 *   return initial.call(someValue, ctx);
+	 * }, (value, ctx) -> value);
+	 * }</pre>
+	 * Handlers are executed in order of first pushed to last pushed, see {@link #execute(BiFunction, Object)}.
+	 * @param initialCaller will be called with the first entry, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @return result of execution
+	 */
+	public double executeDouble(@NonNull ToDoubleBiFunction<T, PipelineContext> initialCaller,
+	                           @NotNull T bottomEntry) {
+		PipelineContext ctx = this.getContext(bottomEntry, false);
+		try {
+			return initialCaller.applyAsDouble(ctx.pass(), ctx);
+		} finally {
+			this.releaseContext(ctx);
+		}
+	}
+
+	/**
+	 * Executes the pipeline and returns a {@code double} result without boxing.
+	 * Meant for handlers like {@link DoubleOperator}, example: <pre>{@code
+	 * double result = pipeline.executeReversedDouble((initial, ctx) -> {
+	 *   return initial.call(someValue, ctx);
+	 * }, (value, ctx) -> value);
+	 * }</pre>
+	 * Handlers are executed in order of last pushed to first pushed, see {@link #executeReversed(BiFunction, Object)}.
+	 * @param initialCaller will be called with the first entry, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @return result of execution
+	 */
+	public double executeReversedDouble(@NonNull ToDoubleBiFunction<T, PipelineContext> initialCaller,
+	                                   @NotNull T bottomEntry) {
+		PipelineContext ctx = this.getContext(bottomEntry, true);
+		try {
+			return initialCaller.applyAsDouble(ctx.pass(), ctx);
+		} finally {
+			this.releaseContext(ctx);
+		}
+	}
+
+	/**
+	 * Executes the pipeline and returns a {@code boolean} result without boxing.
+	 * Meant for handlers like {@link BooleanOperator}, example: <pre>{@code
+	 * boolean result = pipeline.executeBoolean((initial, ctx) -> {
+	 *   return initial.call(someValue, ctx);
+	 * }, (value, ctx) -> value);
+	 * }</pre>
+	 * Handlers are executed in order of first pushed to last pushed, see {@link #execute(BiFunction, Object)}.
+	 * @param initialCaller will be called with the first entry, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @return result of execution
+	 */
+	public boolean executeBoolean(@NonNull BiPredicate<T, PipelineContext> initialCaller,
+	                             @NotNull T bottomEntry) {
+		PipelineContext ctx = this.getContext(bottomEntry, false);
+		try {
+			return initialCaller.test(ctx.pass(), ctx);
+		} finally {
+			this.releaseContext(ctx);
+		}
+	}
+
+	/**
+	 * Executes the pipeline and returns a {@code boolean} result without boxing.
+	 * Meant for handlers like {@link BooleanOperator}, example: <pre>{@code
+	 * boolean result = pipeline.executeReversedBoolean((initial, ctx) -> {
+	 *   return initial.call(someValue, ctx);
+	 * }, (value, ctx) -> value);
+	 * }</pre>
+	 * Handlers are executed in order of last pushed to first pushed, see {@link #executeReversed(BiFunction, Object)}.
+	 * @param initialCaller will be called with the first entry, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @return result of execution
+	 */
+	public boolean executeReversedBoolean(@NonNull BiPredicate<T, PipelineContext> initialCaller,
+	                                     @NotNull T bottomEntry) {
+		PipelineContext ctx = this.getContext(bottomEntry, true);
+		try {
+			return initialCaller.test(ctx.pass(), ctx);
+		} finally {
+			this.releaseContext(ctx);
+		}
+	}
+
+	/**
+	 * Executes the pipeline once per input, storing each result at the same index of {@code outputs}. Example: <pre>{@code
+	 * pipeline.executeBatch(entities, results, (initial, entity, ctx) -> {
+	 *     return initial.call(entity, ctx);
+	 * }, (entity, ctx) -> entity.baseSpeed());
+	 * }</pre>
+	 * The whole batch runs over the handlers present when it starts, with one context:
+	 * modifications made by handlers are queued until the last input finishes, like in a single execution.<br>
+	 * Handlers are executed in order of first pushed to last pushed, see {@link #execute(BiFunction, Object)}.
+	 * <strong>**Do not**</strong> call {@link PipelineContext#pass()}
+	 * in either the {@code initialCaller} or {@code bottomEntry}!
+	 * @param inputs inputs, passed to {@code initialCaller} in order
+	 * @param outputs array to store the results in, at least as long as {@code inputs}
+	 * @param initialCaller will be called with the first entry and an input, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @param <A> input type
+	 * @throws IllegalArgumentException if {@code outputs} is shorter than {@code inputs}
+	 */
+	public <A> void executeBatch(@NonNull A[] inputs,
+	                             @NonNull R[] outputs,
+	                             @NonNull BatchCaller<T, R, A> initialCaller,
+	                             @NotNull T bottomEntry) {
+		executeBatch(inputs, outputs, initialCaller, bottomEntry, false);
+	}
+
+	/**
+	 * Executes the pipeline once per input, in reverse order.
+	 * Handlers are executed in order of last pushed to first pushed.
+	 * See {@link #executeBatch(Object[], Object[], BatchCaller, Object)} for details.
+	 * @param inputs inputs, passed to {@code initialCaller} in order
+	 * @param outputs array to store the results in, at least as long as {@code inputs}
+	 * @param initialCaller will be called with the first entry and an input, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @param <A> input type
+	 * @throws IllegalArgumentException if {@code outputs} is shorter than {@code inputs}
+	 */
+	public <A> void executeBatchReversed(@NonNull A[] inputs,
+	                                     @NonNull R[] outputs,
+	                                     @NonNull BatchCaller<T, R, A> initialCaller,
+	                                     @NotNull T bottomEntry) {
+		executeBatch(inputs, outputs, initialCaller, bottomEntry, true);
+	}
+
+	/**
+	 * Executes the pipeline once per input and returns the results in the same order.
+	 * See {@link #executeBatch(Object[], Object[], BatchCaller, Object)} for details.
+	 * @param inputs inputs, passed to {@code initialCaller} in order
+	 * @param initialCaller will be called with the first entry and an input, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @param <A> input type
+	 * @return fixed-size list of the results, one per input
+	 */
+	public <A> List<R> executeBatch(@NonNull List<? extends A> inputs,
+	                                @NonNull BatchCaller<T, R, A> initialCaller,
+	                                @NotNull T bottomEntry) {
+		return executeBatch(inputs, initialCaller, bottomEntry, false);
+	}
+
+	/**
+	 * Executes the pipeline once per input in reverse order, and returns the results in the same order as the inputs.
+	 * Handlers are executed in order of last pushed to first pushed.
+	 * See {@link #executeBatch(Object[], Object[], BatchCaller, Object)} for details.
+	 * @param inputs inputs, passed to {@code initialCaller} in order
+	 * @param initialCaller will be called with the first entry and an input, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @param <A> input type
+	 * @return fixed-size list of the results, one per input
+	 */
+	public <A> List<R> executeBatchReversed(@NonNull List<? extends A> inputs,
+	                                        @NonNull BatchCaller<T, R, A> initialCaller,
+	                                        @NotNull T bottomEntry) {
+		return executeBatch(inputs, initialCaller, bottomEntry, true);
+	}
+
+	/**
+	 * Executes the pipeline once per input like {@link #executeBatch(Object[], Object[], BatchCaller, Object)},
+	 * splitting the inputs into chunks executed on {@link ForkJoinPool#commonPool()}.
+	 * Batches of at most {@code chunkSize} inputs run inline on the calling thread.<p>
+	 * Every chunk runs over the same handlers with its own context. Handlers run on other threads,
+	 * so they must not push to or pop from this pipeline, or execute it.
+	 * @param inputs inputs, passed to {@code initialCaller}
+	 * @param outputs array to store the results in, at least as long as {@code inputs}
+	 * @param initialCaller will be called with the first entry and an input from any thread, pass parameters to this
+	 * @param bottomEntry entry to call at the bottom, from any thread.
+	 * if the pipeline is empty, this will be passed to {@code initialCaller}
+	 * @param chunkSize maximum amount of inputs executed by one task
+	 * @param <A> input type
+	 * @throws IllegalArgumentException if {@code outputs} is shorter than {@code inputs} or {@code chunkSize} isn't positive
+	 */
+	public <A> void executeBatchParallel(@NonNull A[] inputs,
+	                                     @NonNull R[] outputs,
+	                                     @NonNull BatchCaller<T, R, A> initialCaller,
+	                                     @NotNull T bottomEntry,
+	                                     int chunkSize) {
+		if(chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+		}
+		if(inputs.length <= chunkSize) {
+			executeBatch(inputs, outputs, initialCaller, bottomEntry, false);
+			return;
+		}
+		checkBatchOutputs(inputs, outputs);
+
+		// the context pins the handlers and depth for the whole batch, chunks run over its handlers with their own contexts
+		PipelineContext ctx = this.getContext(bottomEntry, false);
+		try {
+			Object[] handlers = ctx.handlers;
+			RangeTask.invoke(ForkJoinPool.commonPool(), inputs.length, chunkSize, (from, to) -> {
+				PipelineContext chunk = new PipelineContext();
+				chunk.handlers = handlers;
+				runBatch(chunk, inputs, outputs, from, to, initialCaller, bottomEntry);
+				return null;
+			}, null);
+		} finally {
+			this.releaseContext(ctx);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <A> List<R> executeBatch(List<? extends A> inputs, BatchCaller<T, R, A> initialCaller,
+	                                 T bottomEntry, boolean reversed) {
+		A[] array = (A[]) inputs.toArray();
+		R[] outputs = (R[]) new Object[array.length];
+		executeBatch(array, outputs, initialCaller, bottomEntry, reversed);
+		return Arrays.asList(outputs);
+	}
+
+	private <A> void executeBatch(A[] inputs, R[] outputs, BatchCaller<T, R, A> initialCaller,
+	                              T bottomEntry, boolean reversed) {
+		checkBatchOutputs(inputs, outputs);
+
+		PipelineContext ctx = this.getContext(bottomEntry, reversed);
+		try {
+			runBatch(ctx, inputs, outputs, 0, inputs.length, initialCaller, bottomEntry);
+		} finally {
+			this.releaseContext(ctx);
+		}
+	}
+
+	// executes inputs from to to with the context, which is reset between them
+	private <A> void runBatch(PipelineContext ctx, A[] inputs, R[] outputs, int from, int to,
+	                          BatchCaller<T, R, A> initialCaller, T bottomEntry) {
+		for(int i = from; i < to; i++) {
+			ctx.index = 0;
+			ctx.bottomEntry = bottomEntry;
+			outputs[i] = initialCaller.call(ctx.pass(), inputs[i], ctx);
+		}
+	}
+
+	private static void checkBatchOutputs(Object[] inputs, Object[] outputs) {
+		if(outputs.length < inputs.length) {
+			throw new IllegalArgumentException("Outputs are shorter than inputs: " + outputs.length + " < " + inputs.length);
+		}
+	}
+
 	protected PipelineContext getContext(@NonNull T bottomEntry, boolean reversed) {
 		this.depth++;
 
@@ -235,6 +728,27 @@ public class PoolPipeline<T, R> extends AbstractPoolCollection<T> {
 		}
 
 		result.index = 0;
+		result.handlers = getHandlers();
+		result.event = PipelineExecuteEvent.start();
+		if(PoolMetrics.ENABLED) result.startNanos = System.nanoTime();
+		result.bottomEntry = bottomEntry;
+		result.reversed = reversed;
+		return result;
+	}
+
+	/**
+	 * Creates a new context over the specified handlers, which isn't reused or counted in {@link #getDepth()}.
+	 * For subclasses that execute over their own snapshot of the handlers.
+	 * @param handlers handlers to execute, in the same order as {@link #getCollection()}. Not copied, don't modify it after
+	 * @param bottomEntry entry to call at the bottom
+	 * @param reversed true if execution is reversed
+	 * @return new context
+	 */
+	protected PipelineContext createContext(Object[] handlers, @NonNull T bottomEntry, boolean reversed) {
+		PipelineContext result = new PipelineContext();
+		result.handlers = handlers;
+		result.event = PipelineExecuteEvent.start();
+		if(PoolMetrics.ENABLED) result.startNanos = System.nanoTime();
 		result.bottomEntry = bottomEntry;
 		result.reversed = reversed;
 		return result;
@@ -245,16 +759,98 @@ public class PoolPipeline<T, R> extends AbstractPoolCollection<T> {
 			throw new IllegalStateException("Cannot not decrease depth below 0");
 		}
 
+		commitEvent(context, depth);
+		if(PoolMetrics.ENABLED) recordExecution(context, depth);
+
 		this.depth--;
 		this.context = context;
 
 		context.index = 0;
+		context.handlers = null;
 		context.bottomEntry = null;
 		context.reversed = false;
 
-		if(this.depth == 0) {
-			queuedModifications.values().forEach(Runnable::run);
-			queuedModifications.clear();
+		if(this.depth == 0 && queuedCount != 0 && !flushingQueue) {
+			flushQueuedModifications();
+		}
+	}
+
+	/**
+	 * Reports a finished execution to {@link PoolMetrics#recorder()}.
+	 * Only call this if {@link PoolMetrics#ENABLED} is true.
+	 * @param context context of the execution
+	 * @param depth depth of the execution, 1 if not nested
+	 */
+	protected void recordExecution(PipelineContext context, int depth) {
+		PoolMetrics.recorder().onExecute(this, depth, System.nanoTime() - context.startNanos);
+	}
+
+	/**
+	 * Ends and commits the {@link PipelineExecuteEvent} of the context, if it's being recorded.
+	 * @param context context of the execution
+	 * @param depth depth of the execution, 1 if not nested
+	 */
+	protected void commitEvent(PipelineContext context, int depth) {
+		PipelineExecuteEvent event = context.event;
+		if(event != null) {
+			context.event = null;
+			event.end(this, context.handlers.length, depth, context.reversed);
+		}
+	}
+
+	/**
+	 * @return amount of modifications waiting for execution to finish
+	 */
+	public int getQueuedModificationCount() {
+		return queuedCount;
+	}
+
+	private void queueModification(byte op, HandlerPool pool, T handler, int priority) {
+		if(queuedOps == null) {
+			queuedOps = new byte[DEFAULT_COLLECTION_SIZE];
+			queuedPools = new HandlerPool[DEFAULT_COLLECTION_SIZE];
+			queuedHandlers = new Object[DEFAULT_COLLECTION_SIZE];
+			queuedPriorities = new int[DEFAULT_COLLECTION_SIZE];
+		} else if(queuedCount == queuedOps.length) {
+			int capacity = queuedCount << 1;
+			queuedOps = Arrays.copyOf(queuedOps, capacity);
+			queuedPools = Arrays.copyOf(queuedPools, capacity);
+			queuedHandlers = Arrays.copyOf(queuedHandlers, capacity);
+			queuedPriorities = Arrays.copyOf(queuedPriorities, capacity);
+		}
+
+		queuedOps[queuedCount] = op;
+		queuedPools[queuedCount] = pool;
+		queuedHandlers[queuedCount] = handler;
+		queuedPriorities[queuedCount] = priority;
+		queuedCount++;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void flushQueuedModifications() {
+		// callbacks may execute this pipeline again, which appends to the log we're walking,
+		// so the nested release leaves flushing to this loop
+		flushingQueue = true;
+		try {
+			for(int i = 0; i < queuedCount; i++) {
+				HandlerPool pool = queuedPools[i];
+				T handler = (T) queuedHandlers[i];
+				queuedPools[i] = null;
+				queuedHandlers[i] = null;
+
+				switch(queuedOps[i]) {
+					case OP_PUSH -> this.push(pool, handler);
+					case OP_PUSH_LAST -> this.pushLast(pool, handler);
+					case OP_PUSH_PRIORITY -> this.push(pool, handler, queuedPriorities[i]);
+					default -> this.pop(pool);
+				}
+			}
+		} finally {
+			// if an op threw, the rest is dropped rather than replayed on the next execution
+			Arrays.fill(queuedPools, 0, queuedCount, null);
+			Arrays.fill(queuedHandlers, 0, queuedCount, null);
+			queuedCount = 0;
+			flushingQueue = false;
 		}
 	}
 
@@ -271,6 +867,12 @@ public class PoolPipeline<T, R> extends AbstractPoolCollection<T> {
 		@Getter private boolean reversed;
 
 		private int index;
+		@Getter(AccessLevel.NONE)
+		private Object[] handlers;
+		@Getter(AccessLevel.NONE)
+		private long startNanos;
+		@Getter(AccessLevel.NONE)
+		private PipelineExecuteEvent event;
 		private T bottomEntry;
 
 		/**
@@ -287,7 +889,8 @@ public class PoolPipeline<T, R> extends AbstractPoolCollection<T> {
 		 * @throws IllegalStateException if called too many times, most likely in the bottomEntry handler
 		 */
 		public T pass() {
-			if(this.index >= getPushCount()) {
+			Object[] handlers = this.handlers;
+			if(this.index >= handlers.length) {
 				if(bottomEntry != null) {
 					T result = this.bottomEntry;
 					this.bottomEntry = null;
@@ -297,7 +900,8 @@ public class PoolPipeline<T, R> extends AbstractPoolCollection<T> {
 				}
 			}
 
-			T result = list.get(reversed ? index : getPushCount() - index - 1).obj();
+			@SuppressWarnings("unchecked")
+			T result = (T) handlers[reversed ? index : handlers.length - index - 1];
 			this.index++;
 			return result;
 		}
@@ -318,6 +922,24 @@ public class PoolPipeline<T, R> extends AbstractPoolCollection<T> {
 		}
 	}
 
+	/**
+	 * Calls the first handler of a batch execution with one input,
+	 * see {@link #executeBatch(Object[], Object[], BatchCaller, Object)}.
+	 * @param <T> handler type
+	 * @param <R> return type
+	 * @param <A> input type
+	 */
+	@FunctionalInterface
+	public interface BatchCaller<T, R, A> {
+		/**
+		 * @param initial first handler
+		 * @param input input
+		 * @param ctx context of the execution
+		 * @return result for the input
+		 */
+		R call(T initial, A input, PoolPipeline<T, R>.PipelineContext ctx);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -331,24 +953,87 @@ public class PoolPipeline<T, R> extends AbstractPoolCollection<T> {
 		// list is executed in reverse order,
 		// we don't use a stack for better iteration performance (?)
 
-		if(reverse) { // pushLast
+		if(pushPrioritized) {
+			this.pushPrioritized = false;
+
+			// after every handler with a lower or the same priority, so it executes before them
+			int index = list.size();
+			while(index > 0 && getPriority(list.get(index - 1).pool()) > pushPriority) {
+				index--;
+			}
+
+			list.add(index, entry);
+			if(pushPriority != 0) {
+				if(priorities == null) {
+					priorities = new IdentityHashMap<>();
+				}
+				priorities.put(entry.pool(), pushPriority);
+			}
+		} else if(reverse) { // pushLast
 			list.add(0, entry);
 		} else { // push
 			list.add(entry);
 		}
+
+		this.invalidateHandlers();
 	}
 
 	@Override
-	protected void onPush(PoolEntry<T> entry) {
-		if(pushCallback != null) {
-			pushCallback.accept(this, entry);
+	protected PoolEntry<T> doRemove(HandlerPool pool) {
+		PoolEntry<T> entry = super.doRemove(pool);
+		if(entry != null) {
+			if(priorities != null) {
+				priorities.remove(pool);
+			}
+			this.invalidateHandlers();
 		}
+		return entry;
+	}
+
+	@Nullable
+	@Override
+	protected Runnable createPopUndo(HandlerPool pool) {
+		Runnable undo = super.createPopUndo(pool);
+		int priority = getPriority(pool);
+		if(undo == null || priority == 0) return undo;
+
+		return () -> {
+			undo.run();
+			priorities.put(pool, priority); // was non-zero, so the map exists
+		};
+	}
+
+	@Override
+	protected void restoreEntry(PoolEntry<T> entry, int index) {
+		super.restoreEntry(entry, index);
+		this.invalidateHandlers();
+	}
+
+	/**
+	 * Marks the cached handler array as outdated, it is rebuilt on the next execution.
+	 * Pushes and pops do this already, call it if you edit {@link #getCollection()} yourself.
+	 */
+	public void invalidateHandlers() {
+		handlers.invalidate();
+	}
+
+	/**
+	 * Gets the handlers in the same order as {@link #getCollection()},
+	 * rebuilding the cached array if membership changed since the last call.<br>
+	 * The array is shared: don't modify it.
+	 * @return handler array
+	 */
+	protected Object[] getHandlers() {
+		return handlers.get(list);
+	}
+
+	@Override
+	protected void onPush(PoolEntry<T> entry) {
+		PushableCallbackEvent.call(this, true, pushCallback, entry);
 	}
 
 	@Override
 	protected void onPop(PoolEntry<T> entry) {
-		if(popCallback != null) {
-			popCallback.accept(this, entry);
-		}
+		PushableCallbackEvent.call(this, false, popCallback, entry);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,205 @@
+package me.thosea.flowpool.pushable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.jfr.PushableCallbackEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.BiConsumer;
+
+/**
+ * Highest-priority-first pushable managed by {@link HandlerPool}s.<br>
+ * Entries are kept in a binary heap indexed by pool, so pushes and pops are O(log n)
+ * and {@link #peek()} is O(1).<p>
+ * Entries are ordered by the priority they were pushed with, highest first.
+ * Ties are ordered by the comparator if there is one, then by the most recently pushed.
+ * Iteration is in the same order, it sorts a copy of the heap the first time after a change.
+ * @param <T> type
+ */
+@Setter
+@Getter @Accessors(fluent = true, chain = true)
+public class PoolPriorityQueue<T> extends AbstractPoolCollection<T> {
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+	private final EntryHeap<T> heap;
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+	private final List<PoolEntry<T>> sortedView = new SortedView();
+
+	private BiConsumer<PoolPriorityQueue<T>, PoolEntry<T>> pushCallback;
+	private BiConsumer<PoolPriorityQueue<T>, PoolEntry<T>> popCallback;
+
+	// priority of the push in progress, read by doAdd
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+	private int pushPriority;
+
+	/**
+	 * Constructs a new PoolPriorityQueue ordered by priority only,
+	 * with an initial capacity of {@link AbstractPoolCollection#DEFAULT_COLLECTION_SIZE}.
+	 */
+	public PoolPriorityQueue() {
+		this(null, DEFAULT_COLLECTION_SIZE);
+	}
+
+	/**
+	 * Constructs a new PoolPriorityQueue ordered by priority, then by the comparator.
+	 * The comparator is ascending, like {@link java.util.PriorityQueue}:
+	 * out of objects with the same priority, the least one is first.
+	 * Objects pushed with {@link #push(HandlerPool, Object)} all have the same priority,
+	 * so if only that is used, the comparator alone orders the queue.
+	 * @param comparator comparator of objects, or null to only order by priority
+	 */
+	public PoolPriorityQueue(@Nullable Comparator<? super T> comparator) {
+		this(comparator, DEFAULT_COLLECTION_SIZE);
+	}
+
+	/**
+	 * Constructs a new PoolPriorityQueue with the specified comparator and initial capacity.
+	 * @param comparator comparator of objects, or null to only order by priority
+	 * @param initialCapacity initial capacity
+	 * @see #PoolPriorityQueue(Comparator)
+	 */
+	public PoolPriorityQueue(@Nullable Comparator<? super T> comparator, int initialCapacity) {
+		this.heap = new EntryHeap<>(comparator, initialCapacity);
+	}
+
+	/**
+	 * Pushes the object with a priority of zero.
+	 * @param pool HandlerPool
+	 * @param obj object to push
+	 * @see #push(HandlerPool, Object, int)
+	 */
+	@Override
+	public void push(HandlerPool pool, T obj) {
+		push(pool, obj, 0);
+	}
+
+	/**
+	 * Pushes the object with the specified priority.
+	 * It will be returned by {@link #peek()} until an object with a higher priority is pushed,
+	 * or one with the same priority if it wouldn't be ordered after this by the comparator.
+	 * @param pool HandlerPool
+	 * @param obj object to push
+	 * @param priority priority, higher is first
+	 */
+	public void push(HandlerPool pool, T obj, int priority) {
+		// pop first, so pop callbacks pushing again don't overwrite the pending priority
+		if(pool.isPushing(this)) {
+			this.pop(pool);
+		}
+
+		this.pushPriority = priority;
+		doPush(pool, obj, false);
+	}
+
+	/**
+	 * Gets the object with the highest priority, or null if there is none.
+	 * @return {@code pushable.peekEntry().obj()}
+	 */
+	public T peek() {
+		PoolEntry<T> entry = heap.first();
+		return entry == null ? null : entry.obj();
+	}
+
+	/**
+	 * @return entry with the highest priority, or null if there is none
+	 */
+	@Nullable
+	public PoolEntry<T> peekEntry() {
+		return heap.first();
+	}
+
+	/**
+	 * @param pool HandlerPool
+	 * @return priority the pool pushed with, zero if pushed without one or not pushed,
+	 * like {@link PoolPipeline#getPriority(HandlerPool)}
+	 */
+	public int getPriority(HandlerPool pool) {
+		return heap.getPriority(pool);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getPushCount() {
+		return heap.size();
+	}
+
+	/**
+	 * Returns the PoolEntry pushed by the HandlerPool. O(1).
+	 * @param pool HandlerPool
+	 * @return {@link PoolEntry} if pushed by it, null otherwise
+	 */
+	@Nullable
+	@Override
+	public PoolEntry<T> getPushEntry(HandlerPool pool) {
+		return pool == null ? null : heap.get(pool);
+	}
+
+	/**
+	 * Gets the entries in iteration order, highest priority first.
+	 * Unlike other pushables this can't be written to, push and pop instead.
+	 * @return unmodifiable list of the entries
+	 */
+	@Override
+	public List<PoolEntry<T>> getCollection() {
+		return sortedView;
+	}
+
+	@Override
+	protected void doAdd(PoolEntry<T> entry, boolean reverse) {
+		heap.add(entry, pushPriority);
+	}
+
+	@Nullable
+	@Override
+	protected PoolEntry<T> doRemove(HandlerPool pool) {
+		return heap.remove(pool);
+	}
+
+	@Nullable
+	@Override
+	protected Runnable createPopUndo(HandlerPool pool) {
+		// keeps the old sequence, so ties are back in the same order
+		Runnable restore = heap.createRestore(pool);
+		if(restore == null) return null;
+
+		return () -> {
+			restore.run();
+			pool.getPushedStacks().add(this);
+		};
+	}
+
+	@Override
+	protected void onPush(PoolEntry<T> entry) {
+		PushableCallbackEvent.call(this, true, pushCallback, entry);
+	}
+
+	@Override
+	protected void onPop(PoolEntry<T> entry) {
+		PushableCallbackEvent.call(this, false, popCallback, entry);
+	}
+
+	private final class SortedView extends AbstractList<PoolEntry<T>> implements RandomAccess {
+		@Override
+		public PoolEntry<T> get(int index) {
+			PoolEntry<T>[] sorted = heap.sorted();
+			if(index < 0 || index >= sorted.length) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + sorted.length);
+			}
+			return sorted[index];
+		}
+
+		@Override
+		public int size() {
+			return heap.size();
+		}
+	}
+}
\ No newline at end of file
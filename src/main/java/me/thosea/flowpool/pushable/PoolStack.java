@@ -1,24 +1,46 @@
 package me.thosea.flowpool.pushable;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import me.thosea.flowpool.HandlerPool;
 import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.jfr.PushableCallbackEvent;
 
 import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
- * First-in, first-iterated pushable managed by {@link HandlerPool}s.
+ * First-in, first-iterated pushable managed by {@link HandlerPool}s.<br>
+ * Backed by an {@link ArrayDeque} by default, so {@link #getEntry(int)} walks the deque.
+ * Use {@link #forEachEntry(Consumer)} or iterate {@link #getEntryView()} instead,
+ * or {@link #indexed()} for O(1) sequential indexed access.
  * @param <T> type
  */
 @Setter
 @Getter @Accessors(fluent = true, chain = true)
 public class PoolStack<T> extends AbstractPoolCollection<T> {
-	private final ArrayDeque<PoolEntry<T>> stack;
+	private final Deque<PoolEntry<T>> stack;
 	private BiConsumer<PoolStack<T>, PoolEntry<T>> pushCallback;
 	private BiConsumer<PoolStack<T>, PoolEntry<T>> popCallback;
+	/**
+	 * Called with the new value of {@link #peek()} when it changes,
+	 * compared with {@link Objects#equals(Object, Object)}.
+	 * Unlike the push and pop callbacks, it isn't called for pushes and pops that don't change the top,
+	 * and changes made in a {@link #batch(Runnable)} are coalesced into one call.
+	 */
+	private BiConsumer<PoolStack<T>, T> valueCallback;
+
+	// value valueCallback was last called with, or peek() when it was set
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+	private T lastValue;
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+	private int batchDepth = 0;
 
 	/**
 	 * Constructs a new PoolStack with an initial capacity of {@link AbstractPoolCollection#DEFAULT_COLLECTION_SIZE}.
@@ -35,6 +57,21 @@ public class PoolStack<T> extends AbstractPoolCollection<T> {
 		this.stack = new ArrayDeque<>(initialCapacity);
 	}
 
+	private PoolStack(Deque<PoolEntry<T>> stack) {
+		this.stack = stack;
+	}
+
+	/**
+	 * Constructs a new PoolStack backed by an {@link IndexedEntryList},
+	 * making pops and {@link #getPushEntry(HandlerPool)} O(1) instead of O(n).
+	 * Iteration order is the same as a normal PoolStack.
+	 * @return indexed PoolStack
+	 * @param <T> type
+	 */
+	public static <T> PoolStack<T> indexed() {
+		return new PoolStack<>(new IndexedEntryList<>());
+	}
+
 	/**
 	 * Gets the object that was last {@code push}ed onto this pushable,
 	 * or null if there is none.
@@ -66,10 +103,59 @@ public class PoolStack<T> extends AbstractPoolCollection<T> {
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Sets the callback called when the value of {@link #peek()} changes.
+	 * The current value is taken as the initial one, so it's only called for changes after this.
+	 * @param valueCallback callback, or null to remove it
+	 * @return this
+	 */
+	public PoolStack<T> valueCallback(BiConsumer<PoolStack<T>, T> valueCallback) {
+		this.valueCallback = valueCallback;
+		this.lastValue = peek();
+		return this;
+	}
+
+	/**
+	 * Runs the action, calling {@link #valueCallback()} at most once after it
+	 * instead of on every change to {@link #peek()} inside it.
+	 * Nothing is called if the value at the end is the same as before.
+	 * Batches can nest, the outermost one calls the callback.<p>
+	 * A {@link HandlerPool} only has one entry per stack, but its close callbacks may push or pop more,
+	 * so to coalesce everything a close changes, use {@code stack.batch(pool::close)}.
+	 * @param action action to run
+	 */
+	public void batch(@NonNull Runnable action) {
+		this.batchDepth++;
+		try {
+			action.run();
+		} finally {
+			this.batchDepth--;
+			if(batchDepth == 0) {
+				checkValue();
+			}
+		}
+	}
+
+	@Override
+	protected void doPush(HandlerPool pool, T obj, boolean reverse) {
+		// replacing the pool's entry pops it first, don't report the value in between
+		this.batchDepth++;
+		try {
+			super.doPush(pool, obj, reverse);
+		} finally {
+			this.batchDepth--;
+			if(batchDepth == 0) {
+				checkValue();
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * This is an {@link ArrayDeque} unless constructed with {@link #indexed()},
+	 * then it is an {@link IndexedEntryList}.
 	 */
 	@Override
-	public ArrayDeque<PoolEntry<T>> getCollection() {
+	public Deque<PoolEntry<T>> getCollection() {
 		return stack;
 	}
 
@@ -84,15 +170,25 @@ public class PoolStack<T> extends AbstractPoolCollection<T> {
 
 	@Override
 	protected void onPush(PoolEntry<T> entry) {
-		if(pushCallback != null) {
-			pushCallback.accept(this, entry);
-		}
+		PushableCallbackEvent.call(this, true, pushCallback, entry);
 	}
 
 	@Override
 	protected void onPop(PoolEntry<T> entry) {
-		if(popCallback != null) {
-			popCallback.accept(this, entry);
+		PushableCallbackEvent.call(this, false, popCallback, entry);
+
+		if(batchDepth == 0) {
+			checkValue();
+		}
+	}
+
+	private void checkValue() {
+		if(valueCallback == null) return;
+
+		T value = peek();
+		if(!Objects.equals(value, lastValue)) {
+			this.lastValue = value;
+			valueCallback.accept(this, value);
 		}
 	}
 }
\ No newline at end of file
@@ -5,6 +5,9 @@ import lombok.Setter;
 import lombok.experimental.Accessors;
 import me.thosea.flowpool.HandlerPool;
 import me.thosea.flowpool.IPoolPushable;
+import me.thosea.flowpool.PoolJournal;
+import me.thosea.flowpool.jfr.PushableCallbackEvent;
+import me.thosea.flowpool.metrics.PoolMetrics;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -50,6 +53,14 @@ public class PoolToggle implements IPoolPushable<Void> {
 		this.push(pool);
 	}
 
+	/**
+	 * Marks this toggle as pushed by the {@link HandlerPool#current() current pool}, see {@link #push(HandlerPool)}.
+	 * @throws IllegalStateException if not in a {@link HandlerPool#runScoped(Runnable) scope}
+	 */
+	public void push() {
+		this.push(HandlerPool.current());
+	}
+
 	/**
 	 * Marks this toggle as pushed by the {@link HandlerPool}.<br>
 	 * {@link #isPushed()} and {@link HandlerPool#isPushing(IPoolPushable)} will return true,
@@ -59,10 +70,15 @@ public class PoolToggle implements IPoolPushable<Void> {
 	public void push(HandlerPool pool) {
 		if(pushedBy.add(pool)) {
 			pool.getPushedStacks().add(this);
-
-			if(pushCallback != null) {
-				pushCallback.accept(this, pool);
+			if(PoolJournal.isRecording()) {
+				PoolJournal.record(() -> {
+					pushedBy.remove(pool);
+					pool.getPushedStacks().remove(this);
+				});
 			}
+			if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPush(this, pool);
+
+			PushableCallbackEvent.call(this, true, pushCallback, pool);
 		}
 	}
 
@@ -75,9 +91,14 @@ public class PoolToggle implements IPoolPushable<Void> {
 			return false;
 
 		pool.getPushedStacks().remove(this);
-		if(popCallback != null) {
-			popCallback.accept(this, pool);
+		if(PoolJournal.isRecording()) {
+			PoolJournal.record(() -> {
+				pushedBy.add(pool);
+				pool.getPushedStacks().add(this);
+			});
 		}
+		if(PoolMetrics.ENABLED) PoolMetrics.recorder().onPop(this, pool);
+		PushableCallbackEvent.call(this, false, popCallback, pool);
 
 		return true;
 	}
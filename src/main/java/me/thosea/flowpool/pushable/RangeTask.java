@@ -0,0 +1,71 @@
+package me.thosea.flowpool.pushable;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Fork-join task over a range of indexes, split in halves until each part is at most {@code chunkSize} long.
+ * Backs the parallel executions of the pushables.
+ * @param <R> result of a part, {@link Void} if there is none
+ */
+@SuppressWarnings("serial") // never serialized
+final class RangeTask<R> extends RecursiveTask<R> {
+	private final Body<R> body;
+	@Nullable private final BinaryOperator<R> combiner;
+	private final int from;
+	private final int to;
+	private final int chunkSize;
+
+	private RangeTask(Body<R> body, @Nullable BinaryOperator<R> combiner, int from, int to, int chunkSize) {
+		this.body = body;
+		this.combiner = combiner;
+		this.from = from;
+		this.to = to;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Runs the body over the indexes 0 to size on the fork-join pool and waits for it.
+	 * @param pool fork-join pool
+	 * @param size amount of indexes
+	 * @param chunkSize maximum amount of indexes per part
+	 * @param body runs a part
+	 * @param combiner combines the results of two adjacent parts, lower indexes first. Null to ignore results
+	 * @return combined result, null if there is no combiner
+	 * @param <R> result type
+	 */
+	static <R> R invoke(ForkJoinPool pool, int size, int chunkSize, Body<R> body, @Nullable BinaryOperator<R> combiner) {
+		return pool.invoke(new RangeTask<>(body, combiner, 0, size, chunkSize));
+	}
+
+	@Override
+	protected R compute() {
+		if(to - from <= chunkSize) {
+			return body.compute(from, to);
+		}
+
+		int middle = (from + to) >>> 1;
+		RangeTask<R> right = new RangeTask<>(body, combiner, middle, to, chunkSize);
+		right.fork();
+		R left = new RangeTask<>(body, combiner, from, middle, chunkSize).compute();
+		R rightResult = right.join();
+		return combiner == null ? null : combiner.apply(left, rightResult);
+	}
+
+	/**
+	 * Part of a {@link RangeTask}.
+	 * @param <R> result type
+	 */
+	@FunctionalInterface
+	interface Body<R> {
+		/**
+		 * @param from first index, inclusive
+		 * @param to last index, exclusive
+		 * @return result of the part
+		 */
+		R compute(int from, int to);
+	}
+}
\ No newline at end of file
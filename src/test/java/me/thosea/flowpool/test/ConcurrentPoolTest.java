@@ -0,0 +1,247 @@
+package me.thosea.flowpool.test;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.IPoolPushable;
+import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.concurrent.AbstractConcurrentPoolCollection;
+import me.thosea.flowpool.concurrent.ConcurrentHandlerPool;
+import me.thosea.flowpool.concurrent.ConcurrentPoolList;
+import me.thosea.flowpool.concurrent.ConcurrentPoolPipeline;
+import me.thosea.flowpool.concurrent.ConcurrentPoolStack;
+import me.thosea.flowpool.concurrent.ConcurrentPoolToggle;
+import me.thosea.flowpool.pipeline.SingleArgFunction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests, every thread hammers the same pushables and pools,
+ * then the state of the pushables and the pools must agree.
+ */
+public class ConcurrentPoolTest {
+	static final int THREADS = 8;
+	static final int ITERATIONS = 20_000;
+
+	@Test
+	void testPushPopClose() throws Throwable {
+		ConcurrentPoolToggle toggle = new ConcurrentPoolToggle();
+		ConcurrentPoolList<Integer> list = new ConcurrentPoolList<>();
+		ConcurrentPoolStack<Integer> stack = new ConcurrentPoolStack<>();
+		ConcurrentHandlerPool[] pools = new ConcurrentHandlerPool[THREADS / 2];
+		for(int i = 0; i < pools.length; i++) {
+			pools[i] = new ConcurrentHandlerPool();
+		}
+
+		AtomicInteger pushes = new AtomicInteger();
+		AtomicInteger pops = new AtomicInteger();
+		toggle.pushCallback((a, b) -> pushes.incrementAndGet());
+		toggle.popCallback((a, b) -> pops.incrementAndGet());
+
+		runThreads(() -> {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			for(int i = 0; i < ITERATIONS; i++) {
+				// pools are shared, so threads race on the same pool too
+				HandlerPool pool = pools[random.nextInt(pools.length)];
+				switch(random.nextInt(6)) {
+					case 0 -> toggle.push(pool);
+					case 1 -> toggle.pop(pool);
+					case 2 -> list.push(pool, i);
+					case 3 -> stack.pushLast(pool, i);
+					case 4 -> list.pop(pool);
+					default -> pool.close();
+				}
+			}
+		});
+
+		// pushed callbacks and popped callbacks must balance the remaining count
+		assertEquals(toggle.getPushCount(), pushes.get() - pops.get());
+
+		for(ConcurrentHandlerPool pool : pools) {
+			assertEquals(toggle.pushedBy().contains(pool), pool.isPushing(toggle));
+			assertEquals(list.getPushEntry(pool) != null, pool.isPushing(list));
+			assertEquals(stack.getPushEntry(pool) != null, pool.isPushing(stack));
+
+			pool.close();
+			assertTrue(pool.getPushedStacks().isEmpty());
+		}
+
+		assertEquals(0, toggle.getPushCount());
+		assertEquals(0, list.getPushCount());
+		assertEquals(0, stack.getPushCount());
+		assertTrue(list.getEntries().isEmpty());
+	}
+
+	@Test
+	void testOrderPerThread() throws Throwable {
+		ConcurrentPoolList<Integer> list = new ConcurrentPoolList<>();
+
+		runThreads(() -> {
+			// each thread owns its pools, so pushes of one thread must stay in order
+			List<HandlerPool> pools = new ArrayList<>();
+			for(int i = 0; i < 200; i++) {
+				HandlerPool pool = new HandlerPool();
+				pools.add(pool);
+				list.push(pool, i);
+			}
+
+			int last = -1;
+			for(PoolEntry<Integer> entry : list.getEntrySnapshot()) {
+				if(pools.contains(entry.pool())) {
+					assertTrue(entry.obj() > last);
+					last = entry.obj();
+				}
+			}
+			assertEquals(199, last);
+
+			for(HandlerPool pool : pools) {
+				pool.close();
+			}
+		});
+
+		assertEquals(0, list.getPushCount());
+	}
+
+	@Test
+	void testPipeline() throws Throwable {
+		ConcurrentPoolPipeline<SingleArgFunction<Integer, Integer>, Integer> pipeline = new ConcurrentPoolPipeline<>();
+		SingleArgFunction<Integer, Integer> increment = (arg, ctx) -> ctx.pass().call(arg + 1, ctx);
+
+		runThreads(() -> {
+			HandlerPool pool = new HandlerPool();
+			for(int i = 0; i < ITERATIONS / 10; i++) {
+				if((i & 1) == 0) {
+					pipeline.push(pool, increment);
+				} else {
+					pool.close();
+				}
+
+				int result = pipeline.execute((initial, ctx) -> {
+					return initial.call(0, ctx);
+				}, (arg, ctx) -> arg);
+
+				// every handler in the snapshot adds one
+				assertTrue(result >= 0 && result <= THREADS, "result " + result);
+			}
+			pool.close();
+		});
+
+		assertEquals(0, pipeline.getPushCount());
+	}
+
+	@Test
+	void testReentrantPipelinePush() {
+		ConcurrentPoolPipeline<SingleArgFunction<Integer, Integer>, Integer> pipeline = new ConcurrentPoolPipeline<>();
+		HandlerPool poolA = new HandlerPool();
+		HandlerPool poolB = new HandlerPool();
+
+		pipeline.push(poolA, (arg, ctx) -> {
+			// applied right away but not visible to this execution
+			pipeline.push(poolB, (arg1, ctx1) -> ctx1.pass().call(arg1 * 10, ctx1));
+			assertEquals(2, pipeline.getPushCount());
+			return ctx.pass().call(arg + 1, ctx);
+		});
+
+		SingleArgFunction<Integer, Integer> bottom = (arg, ctx) -> arg;
+		assertEquals(2, pipeline.execute((initial, ctx) -> {
+			return initial.call(1, ctx);
+		}, bottom));
+		assertEquals(11, pipeline.execute((initial, ctx) -> {
+			return initial.call(1, ctx);
+		}, bottom)); // poolB (1 * 10) runs first, then poolA (+ 1)
+	}
+
+	@Test
+	void testNestedExecution() {
+		ConcurrentPoolPipeline<SingleArgFunction<Integer, Integer>, Integer> pipeline = new ConcurrentPoolPipeline<>();
+		HandlerPool poolA = new HandlerPool();
+		HandlerPool poolB = new HandlerPool();
+		SingleArgFunction<Integer, Integer> bottom = (arg, ctx) -> arg;
+
+		pipeline.push(poolA, (arg, ctx) -> {
+			if(arg == 0) {
+				// nested execution starts after the push, so it sees poolB
+				pipeline.push(poolB, (arg1, ctx1) -> ctx1.pass().call(arg1 + 100, ctx1));
+				int nested = pipeline.execute((initial, ctx1) -> {
+					return initial.call(1, ctx1);
+				}, bottom);
+				assertEquals(102, nested);
+			}
+			return ctx.pass().call(arg + 1, ctx);
+		});
+
+		// the outer execution keeps the handlers it started with
+		assertEquals(1, pipeline.execute((initial, ctx) -> {
+			return initial.call(0, ctx);
+		}, bottom));
+	}
+
+	@Test
+	void testPipelinePriority() {
+		ConcurrentPoolPipeline<SingleArgFunction<String, String>, String> pipeline = new ConcurrentPoolPipeline<>();
+		HandlerPool poolA = new HandlerPool();
+		HandlerPool poolB = new HandlerPool();
+		HandlerPool poolC = new HandlerPool();
+		SingleArgFunction<String, String> bottom = (arg, ctx) -> arg;
+
+		pipeline.push(poolA, (arg, ctx) -> ctx.pass().call(arg + "a", ctx), 5);
+		pipeline.push(poolB, (arg, ctx) -> ctx.pass().call(arg + "b", ctx), 0);
+		pipeline.push(poolC, (arg, ctx) -> ctx.pass().call(arg + "c", ctx), -1);
+		assertEquals("abc", pipeline.execute((initial, ctx) -> {
+			return initial.call("", ctx);
+		}, bottom));
+		assertEquals(5, pipeline.getPriority(poolA));
+
+		// re-pushing replaces the old position and priority
+		pipeline.push(poolC, (arg, ctx) -> ctx.pass().call(arg + "C", ctx), 10);
+		assertEquals("Cab", pipeline.execute((initial, ctx) -> {
+			return initial.call("", ctx);
+		}, bottom));
+		assertEquals(3, pipeline.getPushCount());
+
+		pipeline.push(poolA, (arg, ctx) -> ctx.pass().call(arg + "A", ctx));
+		assertEquals(0, pipeline.getPriority(poolA));
+		assertEquals("ACb", pipeline.execute((initial, ctx) -> {
+			return initial.call("", ctx);
+		}, bottom));
+
+		poolC.close();
+		assertEquals(0, pipeline.getPriority(poolC));
+		assertEquals("Ab", pipeline.execute((initial, ctx) -> {
+			return initial.call("", ctx);
+		}, bottom));
+	}
+
+	private static void runThreads(Runnable action) throws Throwable {
+		CyclicBarrier barrier = new CyclicBarrier(THREADS);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<Thread> threads = new ArrayList<>();
+
+		for(int i = 0; i < THREADS; i++) {
+			Thread thread = new Thread(() -> {
+				try {
+					barrier.await();
+					action.run();
+				} catch(Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+
+		for(Thread thread : threads) {
+			thread.join();
+		}
+
+		if(failure.get() != null) {
+			throw failure.get();
+		}
+	}
+}
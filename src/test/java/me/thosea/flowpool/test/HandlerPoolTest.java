@@ -0,0 +1,141 @@
+package me.thosea.flowpool.test;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.IPoolPushable;
+import me.thosea.flowpool.pushable.PoolList;
+import me.thosea.flowpool.pushable.PoolToggle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HandlerPoolTest {
+	HandlerPool pool = new HandlerPool();
+
+	@Test
+	void testManyStacks() {
+		List<PoolToggle> toggles = new ArrayList<>();
+		for(int i = 0; i < 100; i++) {
+			PoolToggle toggle = new PoolToggle();
+			toggle.push(pool);
+			toggles.add(toggle);
+		}
+		assertEquals(100, pool.getPushedStacks().size());
+
+		// pop every other one, exercising removal from the middle of the index
+		for(int i = 0; i < 100; i += 2) {
+			assertTrue(toggles.get(i).pop(pool));
+		}
+		for(int i = 0; i < 100; i++) {
+			assertEquals(i % 2 != 0, pool.isPushing(toggles.get(i)));
+		}
+
+		pool.close();
+		assertTrue(pool.getPushedStacks().isEmpty());
+		for(PoolToggle toggle : toggles) {
+			assertFalse(toggle.isPushed());
+			assertFalse(pool.isPushing(toggle));
+		}
+	}
+
+	@Test
+	void testIteratorRemove() {
+		PoolList<String> list = new PoolList<>();
+		PoolToggle toggleA = new PoolToggle();
+		PoolToggle toggleB = new PoolToggle();
+		list.push(pool, "a");
+		toggleA.push(pool);
+		toggleB.push(pool);
+
+		Iterator<IPoolPushable<?>> iterator = pool.getPushedStacks().iterator();
+		int seen = 0;
+		while(iterator.hasNext()) {
+			if(iterator.next() instanceof PoolToggle) {
+				iterator.remove();
+			}
+			seen++;
+		}
+
+		assertEquals(3, seen);
+		assertEquals(1, pool.getPushedStacks().size());
+		assertTrue(pool.isPushing(list));
+	}
+
+	@Test
+	void testCloseCallbacks() {
+		List<String> ran = new ArrayList<>();
+		pool.runOnClose(() -> ran.add("a"));
+		pool.runOnClose(() -> {
+			ran.add("b");
+			pool.runOnClose(() -> ran.add("c"));
+		});
+
+		pool.close();
+		assertEquals(List.of("a", "b", "c"), ran);
+		assertTrue(pool.getCloseCallbacks().isEmpty());
+
+		pool.close();
+		assertEquals(3, ran.size());
+	}
+
+	@Test
+	void testThrowingCloseCallback() {
+		List<String> ran = new ArrayList<>();
+		boolean[] fail = {true};
+		pool.runOnClose(() -> ran.add("a"));
+		pool.runOnClose(() -> {
+			if(fail[0]) throw new IllegalStateException();
+			ran.add("b");
+		});
+
+		assertThrows(IllegalStateException.class, pool::close);
+		assertEquals(List.of("a"), ran);
+		assertEquals(1, pool.getCloseCallbacks().size()); // the failed one is retried
+
+		fail[0] = false;
+		pool.close();
+		assertEquals(List.of("a", "b"), ran);
+		assertTrue(pool.getCloseCallbacks().isEmpty());
+	}
+
+	@Test
+	void testScoped() {
+		PoolToggle toggle = new PoolToggle();
+		PoolList<String> list = new PoolList<>();
+
+		assertNull(HandlerPool.currentOrNull());
+		assertThrows(IllegalStateException.class, toggle::push);
+
+		String result = HandlerPool.callScoped(() -> {
+			HandlerPool outer = HandlerPool.current();
+			toggle.push();
+			list.push("outer");
+
+			HandlerPool.runScoped(() -> {
+				assertNotSame(outer, HandlerPool.current());
+				list.push("inner");
+				assertEquals(2, list.getPushCount());
+			});
+
+			// inner scope closed its pool, outer is current again
+			assertSame(outer, HandlerPool.current());
+			assertEquals(1, list.getPushCount());
+			assertTrue(list.pop());
+			return "done";
+		});
+
+		assertEquals("done", result);
+		assertFalse(toggle.isPushed());
+		assertNull(HandlerPool.currentOrNull());
+
+		assertThrows(RuntimeException.class, () -> HandlerPool.runScoped(pool, () -> {
+			toggle.push();
+			throw new RuntimeException();
+		}));
+		assertFalse(toggle.isPushed());
+		assertNull(HandlerPool.currentOrNull());
+	}
+}
\ No newline at end of file
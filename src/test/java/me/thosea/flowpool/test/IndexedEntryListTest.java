@@ -0,0 +1,112 @@
+package me.thosea.flowpool.test;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.pushable.IndexedEntryList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedEntryListTest {
+	HandlerPool poolA = new HandlerPool();
+	HandlerPool poolB = new HandlerPool();
+	HandlerPool poolC = new HandlerPool();
+	HandlerPool poolD = new HandlerPool();
+
+	@Test
+	void testOrderAndRemoval() {
+		IndexedEntryList<String> list = new IndexedEntryList<>();
+		list.addLast(new PoolEntry<>(poolB, "b"));
+		list.addFirst(new PoolEntry<>(poolA, "a"));
+		list.addLast(new PoolEntry<>(poolC, "c"));
+		list.add(2, new PoolEntry<>(poolD, "d"));
+		assertIterableEquals(List.of("a", "b", "d", "c"), objects(list));
+
+		assertEquals("d", list.getEntry(poolD).obj());
+		assertEquals("d", list.removeEntry(poolD).obj());
+		assertNull(list.removeEntry(poolD));
+		assertFalse(list.containsPool(poolD));
+		assertIterableEquals(List.of("a", "b", "c"), objects(list));
+
+		for(int i = 0; i < list.size(); i++) {
+			assertEquals(List.of("a", "b", "c").get(i), list.get(i).obj());
+		}
+		for(int i = list.size() - 1; i >= 0; i--) {
+			assertEquals(List.of("a", "b", "c").get(i), list.get(i).obj());
+		}
+
+		Iterator<PoolEntry<String>> descending = list.descendingIterator();
+		assertEquals("c", descending.next().obj());
+		assertEquals("b", descending.next().obj());
+		descending.remove();
+		assertIterableEquals(List.of("a", "c"), objects(list));
+		assertFalse(list.containsPool(poolB));
+
+		assertThrows(IllegalArgumentException.class, () -> list.addLast(new PoolEntry<>(poolA, "a2")));
+	}
+
+	@Test
+	void testListIterator() {
+		IndexedEntryList<String> list = new IndexedEntryList<>();
+		list.add(new PoolEntry<>(poolA, "a"));
+		list.add(new PoolEntry<>(poolB, "b"));
+
+		ListIterator<PoolEntry<String>> iterator = list.listIterator();
+		iterator.next();
+		iterator.add(new PoolEntry<>(poolC, "c"));
+		iterator.next();
+		iterator.set(new PoolEntry<>(poolD, "d"));
+		assertIterableEquals(List.of("a", "c", "d"), objects(list));
+		assertFalse(list.containsPool(poolB));
+		assertTrue(list.containsPool(poolD));
+
+		iterator.previous();
+		iterator.remove();
+		assertIterableEquals(List.of("a", "c"), objects(list));
+		assertEquals(2, iterator.nextIndex());
+	}
+
+	@Test
+	void testReversed() {
+		IndexedEntryList<String> list = new IndexedEntryList<>();
+		list.add(new PoolEntry<>(poolA, "a"));
+		list.add(new PoolEntry<>(poolB, "b"));
+
+		IndexedEntryList<String> reversed = list.reversed();
+		assertSame(list, reversed.reversed());
+		assertIterableEquals(List.of("b", "a"), objects(reversed));
+		assertEquals("b", reversed.get(0).obj());
+		assertEquals("b", reversed.getFirst().obj());
+
+		reversed.addFirst(new PoolEntry<>(poolC, "c"));
+		reversed.add(new PoolEntry<>(poolD, "d"));
+		assertIterableEquals(List.of("d", "a", "b", "c"), objects(list));
+		assertIterableEquals(List.of("c", "b", "a", "d"), objects(reversed));
+		assertTrue(reversed.containsPool(poolC));
+
+		ListIterator<PoolEntry<String>> iterator = reversed.listIterator(1);
+		assertEquals(1, iterator.nextIndex());
+		assertEquals("b", iterator.next().obj());
+		iterator.remove();
+		assertEquals("c", iterator.previous().obj());
+		assertEquals(List.of("c", "a", "d"), objects(reversed));
+		assertEquals(List.of("d", "a", "c"), objects(list));
+
+		assertEquals("c", reversed.pollFirst().obj());
+		assertEquals("d", reversed.removeLast().obj());
+		assertIterableEquals(List.of("a"), objects(list));
+	}
+
+	private static List<String> objects(IndexedEntryList<String> list) {
+		List<String> result = new ArrayList<>();
+		for(PoolEntry<String> entry : list) {
+			result.add(entry.obj());
+		}
+		return result;
+	}
+}
@@ -0,0 +1,205 @@
+package me.thosea.flowpool.test;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.pushable.PoolAggregate;
+import me.thosea.flowpool.pushable.PoolDoubleAggregate;
+import me.thosea.flowpool.pushable.PoolIntAggregate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolAggregateTest {
+	HandlerPool poolA = new HandlerPool();
+	HandlerPool poolB = new HandlerPool();
+	HandlerPool poolC = new HandlerPool();
+
+	@Test
+	void testGeneric() {
+		PoolAggregate<Float, Float> sum = PoolAggregate.of(0f, (total, value) -> total + value, (total, value) -> total - value);
+		PoolAggregate<String, String> longest = PoolAggregate.max(Comparator.comparingInt(String::length));
+		PoolAggregate<String, Boolean> anyEmpty = PoolAggregate.anyMatch(String::isEmpty);
+		PoolAggregate<String, Boolean> allEmpty = PoolAggregate.allMatch(String::isEmpty);
+
+		assertEquals(0f, sum.get());
+		assertNull(longest.get());
+		assertFalse(anyEmpty.get());
+		assertTrue(allEmpty.get());
+
+		sum.push(poolA, 1.5f);
+		sum.push(poolB, 2f);
+		sum.push(poolA, 3f); // replaces 1.5
+		assertEquals(5f, sum.get());
+
+		longest.push(poolA, "apples");
+		longest.push(poolB, "kiwi");
+		anyEmpty.push(poolA, "");
+		anyEmpty.push(poolB, "kiwi");
+		allEmpty.push(poolA, "");
+		allEmpty.push(poolB, "kiwi");
+		assertEquals("apples", longest.get());
+		assertTrue(anyEmpty.get());
+		assertFalse(allEmpty.get());
+
+		poolA.close();
+		assertEquals(2f, sum.get());
+		assertEquals("kiwi", longest.get());
+		assertFalse(anyEmpty.get());
+		assertFalse(allEmpty.get());
+
+		poolB.close();
+		assertEquals(0f, sum.get());
+		assertNull(longest.get());
+		assertTrue(allEmpty.get());
+	}
+
+	@Test
+	void testPrimitive() {
+		PoolDoubleAggregate product = PoolDoubleAggregate.product();
+		product.push(poolA, 2.0);
+		product.push(poolB, 0.0);
+		product.push(poolC, 4.0);
+		assertEquals(0.0, product.getAsDouble());
+
+		poolB.close();
+		assertEquals(8.0, product.getAsDouble());
+		poolA.close();
+		assertEquals(4.0, product.getAsDouble());
+		poolC.close();
+		assertEquals(1.0, product.getAsDouble());
+
+		PoolDoubleAggregate min = PoolDoubleAggregate.min(Double.NaN);
+		assertTrue(Double.isNaN(min.getAsDouble()));
+		min.push(poolA, 0.5);
+		assertEquals(0.5, min.getAsDouble());
+	}
+
+	@Test
+	void testRandomInts() {
+		Random random = new Random(7);
+		PoolIntAggregate sum = PoolIntAggregate.sum();
+		PoolIntAggregate min = PoolIntAggregate.min(Integer.MAX_VALUE);
+		PoolIntAggregate max = PoolIntAggregate.max(Integer.MIN_VALUE);
+
+		List<HandlerPool> pools = new ArrayList<>();
+		for(int i = 0; i < 32; i++) {
+			pools.add(new HandlerPool());
+		}
+
+		for(int i = 0; i < 3000; i++) {
+			HandlerPool pool = pools.get(random.nextInt(pools.size()));
+			if(random.nextInt(3) == 0) {
+				pool.close();
+			} else {
+				int value = random.nextInt(1000) - 500;
+				sum.push(pool, value);
+				min.push(pool, value);
+				max.push(pool, value);
+			}
+
+			List<Integer> values = sum.getEntries();
+			assertEquals(values.stream().mapToInt(Integer::intValue).sum(), sum.getAsInt());
+			assertEquals(values.stream().mapToInt(Integer::intValue).min().orElse(Integer.MAX_VALUE), min.getAsInt());
+			assertEquals(values.stream().mapToInt(Integer::intValue).max().orElse(Integer.MIN_VALUE), max.getAsInt());
+		}
+	}
+
+	@Test
+	void testDoublePrecision() {
+		PoolDoubleAggregate sum = PoolDoubleAggregate.sum();
+		sum.push(poolA, 1e20);
+		sum.push(poolB, 1.0);
+		poolA.close();
+		assertEquals(1.0, sum.getAsDouble());
+
+		sum.push(poolA, 0.1);
+		sum.push(poolC, 1e17);
+		poolC.close();
+		assertEquals(1.1, sum.getAsDouble(), 1e-15);
+	}
+
+	@Test
+	void testDoubleMixedSigns() {
+		PoolDoubleAggregate sum = PoolDoubleAggregate.sum();
+		List<HandlerPool> pools = new ArrayList<>();
+		for(int i = 0; i < 100; i++) {
+			HandlerPool pool = new HandlerPool();
+			pools.add(pool);
+			sum.push(pool, (i % 2 == 0 ? 1 : -1) * (0.1 + i));
+		}
+
+		double expected = 0;
+		for(int i = 0; i < 100; i++) {
+			expected += (i % 2 == 0 ? 1 : -1) * (0.1 + i);
+		}
+		assertEquals(expected, sum.getAsDouble(), 1e-12);
+
+		for(int i = 99; i >= 0; i--) {
+			pools.get(i).close();
+			expected = 0;
+			for(int j = 0; j < i; j++) {
+				expected += (j % 2 == 0 ? 1 : -1) * (0.1 + j);
+			}
+			assertEquals(expected, sum.getAsDouble(), 1e-12);
+		}
+	}
+
+	@Test
+	void testDoubleNonFinite() {
+		PoolDoubleAggregate sum = PoolDoubleAggregate.sum();
+		sum.push(poolA, 2.0);
+		sum.push(poolB, Double.POSITIVE_INFINITY);
+		assertEquals(Double.POSITIVE_INFINITY, sum.getAsDouble());
+		sum.push(poolC, Double.NEGATIVE_INFINITY);
+		assertTrue(Double.isNaN(sum.getAsDouble()));
+		poolB.close();
+		assertEquals(Double.NEGATIVE_INFINITY, sum.getAsDouble());
+		poolC.close();
+		assertEquals(2.0, sum.getAsDouble());
+
+		sum.push(poolB, Double.NaN);
+		assertTrue(Double.isNaN(sum.getAsDouble()));
+		poolB.close();
+		assertEquals(2.0, sum.getAsDouble());
+
+		PoolDoubleAggregate product = PoolDoubleAggregate.product();
+		product.push(poolA, -3.0);
+		product.push(poolB, Double.POSITIVE_INFINITY);
+		assertEquals(Double.NEGATIVE_INFINITY, product.getAsDouble());
+		product.push(poolC, 0.0);
+		assertTrue(Double.isNaN(product.getAsDouble()));
+		poolB.close();
+		assertEquals(0.0, product.getAsDouble());
+		poolC.close();
+		assertEquals(-3.0, product.getAsDouble());
+
+		product.push(poolB, Double.NaN);
+		assertTrue(Double.isNaN(product.getAsDouble()));
+		poolB.close();
+		assertEquals(-3.0, product.getAsDouble());
+	}
+
+	@Test
+	void testDoubleProductRange() {
+		HandlerPool poolD = new HandlerPool();
+		PoolDoubleAggregate product = PoolDoubleAggregate.product();
+		product.push(poolA, 4.0);
+		product.push(poolB, 1e-200);
+		product.push(poolC, 1e-200);
+		assertEquals(0.0, product.getAsDouble()); // underflows
+		poolB.close();
+		assertEquals(4e-200, product.getAsDouble(), 1e-214);
+
+		product.push(poolB, 1e200);
+		product.push(poolD, 1e200);
+		assertEquals(4e200, product.getAsDouble(), 1e186);
+		poolC.close();
+		assertEquals(Double.POSITIVE_INFINITY, product.getAsDouble()); // overflows
+		poolD.close();
+		assertEquals(4e200, product.getAsDouble(), 1e186);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+package me.thosea.flowpool.test;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolJournal;
+import me.thosea.flowpool.concurrent.ConcurrentHandlerPool;
+import me.thosea.flowpool.pushable.PoolBitToggle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolBitToggleTest {
+	HandlerPool poolA = new HandlerPool();
+	HandlerPool poolB = new HandlerPool();
+
+	@Test
+	void testToggle() {
+		PoolBitToggle toggle = new PoolBitToggle();
+		assertFalse(toggle.isPushed());
+		assertFalse(toggle.pop(poolA));
+		assertFalse(poolA.hasId()); // popping shouldn't assign an id
+
+		AtomicInteger pushCount = new AtomicInteger();
+		AtomicInteger popCount = new AtomicInteger();
+		toggle.pushCallback((a, b) -> pushCount.incrementAndGet());
+		toggle.popCallback((a, b) -> popCount.incrementAndGet());
+
+		toggle.push(poolA);
+		toggle.push(poolA);
+		toggle.push(poolB);
+		assertEquals(2, toggle.getPushCount());
+		assertTrue(toggle.isPushedBy(poolA));
+		assertTrue(poolA.isPushing(toggle));
+
+		poolA.close();
+		assertFalse(toggle.isPushedBy(poolA));
+		assertEquals(1, toggle.getPushCount());
+
+		poolB.close();
+		assertFalse(toggle.isPushed());
+		assertEquals(2, pushCount.get());
+		assertEquals(2, popCount.get());
+	}
+
+	@Test
+	void testSpill() {
+		PoolBitToggle toggle = new PoolBitToggle();
+		List<HandlerPool> pools = new ArrayList<>();
+		for(int i = 0; i < 300; i++) {
+			HandlerPool pool = new HandlerPool();
+			pools.add(pool);
+			toggle.push(pool);
+		}
+		assertEquals(300, toggle.getPushCount());
+
+		for(HandlerPool pool : pools) {
+			assertTrue(toggle.isPushedBy(pool));
+			pool.release();
+		}
+		assertFalse(toggle.isPushed());
+		assertEquals(0, toggle.getPushCount());
+	}
+
+	@Test
+	void testIdRecycling() {
+		HandlerPool pool = new HandlerPool();
+		int id = pool.getId();
+		assertEquals(id, pool.getId());
+
+		pool.release();
+		assertFalse(pool.hasId());
+
+		HandlerPool other = new HandlerPool();
+		assertEquals(id, other.getId()); // lowest free id is reused
+		other.release();
+	}
+
+	@Test
+	void testCloseFreesId() {
+		PoolBitToggle toggle = new PoolBitToggle();
+		HandlerPool first = new HandlerPool();
+		toggle.push(first);
+		int id = first.getId();
+		first.close();
+		assertFalse(first.hasId());
+
+		// short-lived pools keep reusing the same id instead of growing the toggle
+		for(int i = 0; i < 1000; i++) {
+			HandlerPool pool = new HandlerPool();
+			toggle.push(pool);
+			assertEquals(id, pool.getId());
+			pool.close();
+		}
+		assertFalse(toggle.isPushed());
+	}
+
+	@Test
+	void testRollbackAfterIdReuse() {
+		PoolBitToggle toggle = new PoolBitToggle();
+		HandlerPool pool = new HandlerPool();
+		PoolJournal journal = new PoolJournal();
+		journal.run(() -> toggle.push(pool));
+		int id = pool.getId();
+		pool.close();
+		assertFalse(pool.hasId());
+
+		HandlerPool other = new HandlerPool();
+		toggle.push(other);
+		assertEquals(id, other.getId());
+
+		// undoes the pop by close, then the push, without touching the new owner of the id
+		journal.rollback();
+		assertTrue(toggle.isPushedBy(other));
+		assertFalse(toggle.isPushedBy(pool));
+		assertFalse(pool.isPushing(toggle));
+		assertEquals(1, toggle.getPushCount());
+		other.release();
+		pool.release();
+	}
+
+	@Test
+	void testConcurrentCloseFreesId() {
+		PoolBitToggle toggle = new PoolBitToggle();
+		HandlerPool pool = new ConcurrentHandlerPool();
+		toggle.push(pool);
+		assertTrue(pool.hasId());
+
+		pool.close();
+		assertFalse(toggle.isPushed());
+		assertFalse(pool.hasId());
+	}
+}
\ No newline at end of file
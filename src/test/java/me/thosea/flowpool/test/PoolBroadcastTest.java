@@ -0,0 +1,91 @@
+package me.thosea.flowpool.test;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.pushable.PoolBroadcast;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolBroadcastTest {
+	HandlerPool poolA = new HandlerPool();
+	HandlerPool poolB = new HandlerPool();
+	HandlerPool poolC = new HandlerPool();
+
+	@Test
+	void testExecuteAll() {
+		PoolBroadcast<Supplier<String>, String> broadcast = new PoolBroadcast<>();
+		assertEquals("", broadcast.executeAll(Supplier::get, "", String::concat));
+
+		broadcast.push(poolA, () -> "a");
+		broadcast.push(poolB, () -> "b");
+		broadcast.pushFirst(poolC, () -> "c");
+		assertEquals("cab", broadcast.executeAll(Supplier::get, "", String::concat));
+
+		List<String> calls = new ArrayList<>();
+		broadcast.executeAll(handler -> calls.add(handler.get()));
+		assertEquals(List.of("c", "a", "b"), calls);
+
+		poolA.close();
+		assertEquals("cb", broadcast.executeAll(Supplier::get, "", String::concat));
+	}
+
+	@Test
+	void testPushWhileExecuting() {
+		PoolBroadcast<Supplier<String>, String> broadcast = new PoolBroadcast<>();
+		broadcast.push(poolA, () -> {
+			broadcast.push(poolB, () -> "b");
+			return "a";
+		});
+
+		assertEquals("a", broadcast.executeAll(Supplier::get, "", String::concat));
+		assertEquals("ab", broadcast.executeAll(Supplier::get, "", String::concat));
+	}
+
+	@Test
+	void testParallel() {
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		try {
+			PoolBroadcast<IntSupplier, String> broadcast = new PoolBroadcast<>(forkJoinPool);
+			broadcast.setParallelThreshold(8);
+
+			StringBuilder expected = new StringBuilder();
+			for(int i = 0; i < 100; i++) {
+				int value = i;
+				broadcast.push(new HandlerPool(), () -> value);
+				expected.append(i).append(',');
+			}
+
+			// concatenation isn't commutative, so this checks the order too
+			String result = broadcast.executeParallel(handler -> handler.getAsInt() + ",", "", String::concat);
+			assertEquals(expected.toString(), result);
+
+			AtomicInteger sum = new AtomicInteger();
+			broadcast.executeParallel(handler -> sum.addAndGet(handler.getAsInt()));
+			assertEquals(4950, sum.get());
+		} finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
+	@Test
+	void testInlineBelowThreshold() {
+		PoolBroadcast<IntSupplier, Integer> broadcast = new PoolBroadcast<>();
+		broadcast.push(poolA, () -> 1);
+		broadcast.push(poolB, () -> 2);
+
+		Thread thread = Thread.currentThread();
+		assertEquals(3, broadcast.executeParallel(handler -> {
+			assertSame(thread, Thread.currentThread());
+			return handler.getAsInt();
+		}, 0, Integer::sum));
+
+		assertThrows(IllegalArgumentException.class, () -> broadcast.setParallelThreshold(0));
+	}
+}
\ No newline at end of file
@@ -4,11 +4,14 @@ import me.thosea.flowpool.HandlerPool;
 import me.thosea.flowpool.pushable.AbstractPoolCollection;
 import me.thosea.flowpool.pushable.PoolList;
 import me.thosea.flowpool.pushable.PoolPipeline;
+import me.thosea.flowpool.pushable.PoolPriorityQueue;
 import me.thosea.flowpool.pushable.PoolStack;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -96,15 +99,100 @@ public class PoolCollectionTest {
 		}
 	}
 
+	@ParameterizedTest
+	@MethodSource("pushableSupplier")
+	void testEntryView(AbstractPoolCollection<String> pushable, ListCreator lists) {
+		List<String> view = pushable.getEntryView();
+		assertTrue(view.isEmpty());
+
+		pushable.push(poolA, "apples");
+		pushable.push(poolB, "oranges");
+		pushable.push(poolC, "bananas");
+
+		List<String> expected = lists.make("apples", "oranges", "bananas");
+		assertIterableEquals(expected, view);
+		assertEquals(expected, view);
+		for(int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i), pushable.getEntry(i));
+		}
+		assertThrows(IndexOutOfBoundsException.class, () -> pushable.getEntry(3));
+		assertEquals(expected.indexOf("oranges"), view.indexOf("oranges"));
+		assertEquals(expected.lastIndexOf("bananas"), view.lastIndexOf("bananas"));
+		assertEquals(-1, view.indexOf("carrots"));
+		assertEquals(expected.hashCode(), view.hashCode());
+		assertNotEquals(List.of("apples"), view);
+
+		List<String> visited = new ArrayList<>();
+		pushable.forEachEntry(visited::add);
+		assertEquals(expected, visited);
+
+		assertThrows(UnsupportedOperationException.class, () -> view.add("carrots"));
+
+		poolB.close();
+		assertIterableEquals(lists.make("apples", "bananas"), view);
+		assertSame(view, pushable.getEntryView());
+
+		if(pushable instanceof PoolList<String> list) {
+			visited.clear();
+			list.forEachEntryReversed(visited::add);
+			assertEquals(List.of("bananas", "apples"), visited);
+
+			visited.clear();
+			list.descendingIterator().forEachRemaining(visited::add);
+			assertEquals(List.of("bananas", "apples"), visited);
+		}
+	}
+
+	@Test
+	void testValueCallback() {
+		PoolStack<String> stack = new PoolStack<>();
+		stack.push(poolA, "apples");
+
+		List<String> values = new ArrayList<>();
+		stack.valueCallback((s, value) -> values.add(value));
+
+		stack.pushLast(poolB, "oranges"); // top unchanged
+		stack.push(poolC, "apples"); // equal value
+		assertEquals(List.of(), values);
+
+		stack.push(poolC, "bananas"); // replaces poolC's entry, one change
+		assertEquals(List.of("bananas"), values);
+
+		poolB.close(); // not the top
+		assertEquals(List.of("bananas"), values);
+
+		stack.batch(() -> {
+			poolC.close();
+			poolA.close();
+			stack.push(poolB, "carrots");
+		});
+		assertEquals(List.of("bananas", "carrots"), values);
+
+		stack.batch(() -> {
+			poolB.close();
+			stack.push(poolB, "carrots");
+		});
+		assertEquals(List.of("bananas", "carrots"), values);
+
+		poolB.close();
+		assertEquals(Arrays.asList("bananas", "carrots", null), values);
+	}
+
 	private static Stream<Arguments> pushableSupplier() {
+		ListCreator reversed = args -> {
+			List<String> list = Arrays.asList(args);
+			Collections.reverse(list);
+			return list;
+		};
+
 		return Stream.of(
-				arguments(new PoolStack<>(), (ListCreator) args -> {
-					List<String> list = Arrays.asList(args);
-					Collections.reverse(list);
-					return list;
-				}),
+				arguments(new PoolStack<>(), reversed),
 				arguments(new PoolList<>(), (ListCreator) List::of),
-				arguments(new PoolPipeline<>(), (ListCreator) List::of)
+				arguments(new PoolPipeline<>(), (ListCreator) List::of),
+				arguments(PoolStack.indexed(), reversed),
+				arguments(PoolList.indexed(), (ListCreator) List::of),
+				arguments(PoolPipeline.indexed(), (ListCreator) List::of),
+				arguments(new PoolPriorityQueue<>(), reversed)
 		);
 	}
 
@@ -0,0 +1,99 @@
+package me.thosea.flowpool.test;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolJournal;
+import me.thosea.flowpool.pushable.PoolCompiledPipeline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolCompiledPipelineTest {
+	HandlerPool poolA = new HandlerPool();
+	HandlerPool poolB = new HandlerPool();
+	HandlerPool poolC = new HandlerPool();
+
+	PoolCompiledPipeline<Stage, UnaryOperator<String>> pipeline;
+
+	@BeforeEach
+	void setup() {
+		pipeline = new PoolCompiledPipeline<>(
+				UnaryOperator.class,
+				(stage, next) -> input -> stage.apply(input, next),
+				input -> input + "!");
+	}
+
+	@Test
+	void testChain() {
+		assertSame(pipeline.getBottom(), pipeline.get());
+		assertEquals("x!", pipeline.get().apply("x"));
+
+		pipeline.push(poolA, (input, next) -> next.apply(input + "a"));
+		pipeline.push(poolB, (input, next) -> next.apply(input + "b"));
+		pipeline.pushLast(poolC, (input, next) -> next.apply(input + "c"));
+		assertEquals("xbac!", pipeline.get().apply("x"));
+
+		UnaryOperator<String> chain = pipeline.get();
+		assertSame(chain, pipeline.get());
+
+		poolA.close();
+		assertEquals("xbc!", pipeline.get().apply("x"));
+		assertEquals("xbac!", chain.apply("x")); // old chain is unchanged
+	}
+
+	@Test
+	void testShortCircuit() {
+		pipeline.push(poolA, (input, next) -> next.apply(input + "a"));
+		pipeline.push(poolB, (input, next) -> input.isEmpty() ? "empty" : next.apply(input));
+
+		assertEquals("empty", pipeline.get().apply(""));
+		assertEquals("xa!", pipeline.get().apply("x"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testInvoker() throws Throwable {
+		MethodHandle invoker = pipeline.getInvoker();
+		assertEquals("x!", ((UnaryOperator<String>) invoker.invoke()).apply("x"));
+
+		pipeline.push(poolA, (input, next) -> next.apply(input + "a"));
+		assertEquals("xa!", ((UnaryOperator<String>) invoker.invoke()).apply("x"));
+		assertSame(pipeline.get(), invoker.invoke());
+
+		poolA.close();
+		assertEquals("x!", ((UnaryOperator<String>) invoker.invoke()).apply("x"));
+	}
+
+	@Test
+	void testModifyWhileRunning() {
+		pipeline.push(poolA, (input, next) -> {
+			pipeline.push(poolB, (input1, next1) -> next1.apply(input1 + "b"));
+			return next.apply(input + "a");
+		});
+
+		assertEquals("xa!", pipeline.get().apply("x"));
+		assertEquals("xba!", pipeline.get().apply("x"));
+	}
+
+	@Test
+	void testRollback() {
+		pipeline.push(poolA, (input, next) -> next.apply(input + "a"));
+
+		PoolJournal journal = new PoolJournal();
+		journal.run(() -> {
+			pipeline.push(poolB, (input, next) -> next.apply(input + "b"));
+			poolA.close();
+			assertEquals("xb!", pipeline.get().apply("x"));
+		});
+		journal.rollback();
+
+		assertEquals("xa!", pipeline.get().apply("x"));
+	}
+
+	public interface Stage {
+		String apply(String input, UnaryOperator<String> next);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,130 @@
+package me.thosea.flowpool.test;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.pushable.PoolEventBus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolEventBusTest {
+	HandlerPool poolA = new HandlerPool();
+	HandlerPool poolB = new HandlerPool();
+
+	PoolEventBus<Event> bus = new PoolEventBus<>();
+	List<String> calls = new ArrayList<>();
+
+	@Test
+	void testHierarchy() {
+		bus.push(poolA, Event.class, event -> calls.add("event"));
+		bus.push(poolA, Named.class, event -> calls.add("named " + event.name()));
+		bus.push(poolB, ChildEvent.class, event -> calls.add("child"));
+		bus.push(poolB, event -> calls.add("all"));
+
+		assertTrue(bus.post(new Event()));
+		assertEquals(List.of("event", "all"), calls);
+		calls.clear();
+
+		assertTrue(bus.post(new ChildEvent()));
+		assertEquals(List.of("event", "named child", "child", "all"), calls);
+		assertEquals(4, bus.getPushCount());
+	}
+
+	@Test
+	void testPop() {
+		bus.push(poolA, Event.class, event -> calls.add("a event"));
+		bus.push(poolA, ChildEvent.class, event -> calls.add("a child"));
+		bus.push(poolA, Event.class, event -> calls.add("a event 2"));
+		bus.push(poolB, ChildEvent.class, event -> calls.add("b child"));
+
+		bus.post(new ChildEvent()); // build the table
+		calls.clear();
+
+		assertTrue(bus.pop(poolA, ChildEvent.class));
+		assertFalse(bus.pop(poolA, ChildEvent.class));
+		bus.post(new ChildEvent());
+		assertEquals(List.of("a event", "a event 2", "b child"), calls);
+		assertEquals(2, bus.getPushCount(poolA));
+		calls.clear();
+
+		poolA.close();
+		assertFalse(poolA.isPushing(bus));
+		assertTrue(poolB.isPushing(bus));
+		bus.post(new ChildEvent());
+		assertEquals(List.of("b child"), calls);
+		assertFalse(bus.post(new Event()));
+		assertFalse(bus.hasListeners(Event.class));
+		assertEquals(1, bus.getPushCount());
+
+		poolB.close();
+		assertFalse(bus.isPushed());
+		assertFalse(bus.hasListeners(ChildEvent.class));
+	}
+
+	@Test
+	void testPopMixedTypes() {
+		bus.push(poolA, Named.class, event -> calls.add("a named"));
+		bus.push(poolA, ChildEvent.class, event -> calls.add("a child"));
+		bus.push(poolA, Named.class, event -> calls.add("a named 2"));
+		bus.push(poolB, Event.class, event -> calls.add("b event"));
+
+		// build the tables of both classes
+		bus.post(new Event());
+		bus.post(new ChildEvent());
+		calls.clear();
+
+		poolA.close();
+		assertEquals(1, bus.getPushCount());
+		bus.post(new ChildEvent());
+		bus.post(new Event());
+		assertEquals(List.of("b event", "b event"), calls);
+	}
+
+	@Test
+	void testSameListenerTwice() {
+		Consumer<Event> listener = event -> calls.add("event");
+		bus.push(poolA, Event.class, listener);
+		bus.push(poolA, Event.class, listener);
+		bus.push(poolB, Event.class, listener);
+		bus.post(new Event());
+		assertEquals(3, calls.size());
+		calls.clear();
+
+		poolA.close();
+		bus.post(new Event());
+		assertEquals(List.of("event"), calls);
+		assertEquals(1, bus.getPushCount());
+	}
+
+	@Test
+	void testPushWhilePosting() {
+		bus.push(poolA, Event.class, event -> {
+			calls.add("a");
+			bus.push(poolB, Event.class, event1 -> calls.add("b"));
+			poolA.close();
+		});
+
+		bus.post(new Event());
+		assertEquals(List.of("a"), calls);
+		calls.clear();
+
+		bus.post(new Event());
+		assertEquals(List.of("b"), calls);
+	}
+
+	interface Named {
+		String name();
+	}
+
+	static class Event {}
+
+	static class ChildEvent extends Event implements Named {
+		@Override
+		public String name() {
+			return "child";
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package me.thosea.flowpool.test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.jfr.HandlerPoolCloseEvent;
+import me.thosea.flowpool.jfr.PipelineExecuteEvent;
+import me.thosea.flowpool.jfr.PushableCallbackEvent;
+import me.thosea.flowpool.pipeline.IntOperator;
+import me.thosea.flowpool.pushable.PoolList;
+import me.thosea.flowpool.pushable.PoolPipeline;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolEventTest {
+	@Test
+	void testEvents() throws Exception {
+		HandlerPool pool = new HandlerPool();
+		PoolList<String> list = new PoolList<>();
+		list.pushCallback((a, b) -> {});
+		list.popCallback((a, b) -> {});
+
+		PoolPipeline<IntOperator, Integer> pipeline = new PoolPipeline<>();
+		pipeline.push(pool, (arg, ctx) -> ctx.pass().call(arg + 1, ctx));
+
+		List<RecordedEvent> events;
+		Path file = Files.createTempFile("flowpool", ".jfr");
+		try(Recording recording = new Recording()) {
+			recording.enable(PipelineExecuteEvent.class).withoutThreshold();
+			recording.enable(HandlerPoolCloseEvent.class).withoutThreshold();
+			recording.enable(PushableCallbackEvent.class).withoutThreshold();
+			recording.start();
+
+			list.push(pool, "a");
+			assertEquals(1, pipeline.executeReversed((initial, ctx) -> {
+				return initial.call(0, ctx);
+			}, (arg, ctx) -> arg));
+			pool.close();
+
+			recording.stop();
+			recording.dump(file);
+			events = RecordingFile.readAllEvents(file);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+
+		RecordedEvent execute = find(events, "me.thosea.flowpool.PipelineExecute");
+		assertEquals(1, execute.getInt("handlerCount"));
+		assertEquals(1, execute.getInt("depth"));
+		assertTrue(execute.getBoolean("reversed"));
+
+		RecordedEvent close = find(events, "me.thosea.flowpool.HandlerPoolClose");
+		assertEquals(2, close.getInt("stacksPopped"));
+		assertEquals(0, close.getInt("callbacksRun"));
+
+		long callbacks = events.stream()
+				.filter(event -> event.getEventType().getName().equals("me.thosea.flowpool.PushableCallback"))
+				.count();
+		assertEquals(2, callbacks);
+	}
+
+	private static RecordedEvent find(List<RecordedEvent> events, String name) {
+		return events.stream()
+				.filter(event -> event.getEventType().getName().equals(name))
+				.findFirst()
+				.orElseThrow(() -> new AssertionError("No " + name + " event"));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package me.thosea.flowpool.test;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolJournal;
+import me.thosea.flowpool.pushable.PoolBitToggle;
+import me.thosea.flowpool.pushable.PoolIntAggregate;
+import me.thosea.flowpool.pushable.PoolList;
+import me.thosea.flowpool.pushable.PoolPriorityQueue;
+import me.thosea.flowpool.pushable.PoolStack;
+import me.thosea.flowpool.pushable.PoolToggle;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolJournalTest {
+	HandlerPool poolA = new HandlerPool();
+	HandlerPool poolB = new HandlerPool();
+	HandlerPool poolC = new HandlerPool();
+
+	@Test
+	void testRollback() {
+		PoolList<String> list = new PoolList<>();
+		PoolStack<String> stack = new PoolStack<>();
+		PoolToggle toggle = new PoolToggle();
+		PoolBitToggle bits = new PoolBitToggle();
+		PoolPriorityQueue<String> queue = new PoolPriorityQueue<>();
+		PoolIntAggregate sum = PoolIntAggregate.sum();
+
+		list.push(poolA, "a");
+		list.push(poolB, "b");
+		list.push(poolC, "c");
+		stack.push(poolA, "a");
+		stack.push(poolB, "b");
+		stack.push(poolC, "c");
+		toggle.push(poolA);
+		bits.push(poolB);
+		queue.push(poolA, "a", 1);
+		queue.push(poolB, "b", 2);
+		sum.push(poolA, 5);
+
+		PoolJournal journal = new PoolJournal();
+		journal.run(() -> {
+			int snapshot = journal.snapshot();
+
+			poolB.close();
+			list.push(poolA, "a2"); // replaces, moves to the end
+			stack.push(poolC, "c2");
+			toggle.push(poolC);
+			bits.push(poolA);
+			queue.push(poolC, "c", 3);
+			sum.push(poolB, 10);
+			assertNotEquals(0, journal.size());
+
+			journal.rollback(snapshot);
+			assertEquals(0, journal.size());
+		});
+
+		assertFalse(PoolJournal.isRecording());
+		assertEquals(List.of("a", "b", "c"), list.getEntries());
+		assertEquals(List.of("c", "b", "a"), stack.getEntries());
+		assertTrue(toggle.isPushed());
+		assertEquals(1, toggle.getPushCount());
+		assertTrue(bits.isPushedBy(poolB));
+		assertFalse(bits.isPushedBy(poolA));
+		assertEquals(List.of("b", "a"), queue.getEntries());
+		assertEquals(5, sum.getAsInt());
+
+		// back-references are restored too
+		assertEquals(5, poolA.getPushedStacks().size());
+		assertEquals(4, poolB.getPushedStacks().size());
+		assertEquals(2, poolC.getPushedStacks().size());
+
+		// changes outside of the journal aren't recorded
+		poolC.close();
+		assertEquals(0, journal.size());
+		journal.rollback();
+		assertEquals(List.of("a", "b"), list.getEntries());
+	}
+
+	@Test
+	void testNested() {
+		PoolList<String> list = new PoolList<>();
+		PoolJournal outer = new PoolJournal();
+		PoolJournal inner = new PoolJournal();
+
+		outer.start();
+		list.push(poolA, "a");
+		inner.run(() -> list.push(poolB, "b"));
+		list.push(poolC, "c");
+		outer.stop();
+
+		assertEquals(2, outer.size());
+		assertEquals(1, inner.size());
+
+		inner.rollback();
+		assertEquals(List.of("a", "c"), list.getEntries());
+		outer.rollback();
+		assertEquals(List.of(), list.getEntries());
+
+		assertThrows(IllegalStateException.class, inner::stop);
+		assertThrows(IllegalArgumentException.class, () -> outer.rollback(1));
+	}
+}
\ No newline at end of file
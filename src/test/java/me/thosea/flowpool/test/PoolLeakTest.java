@@ -0,0 +1,94 @@
+package me.thosea.flowpool.test;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.leak.PoolLeak;
+import me.thosea.flowpool.leak.PoolLeakDetector;
+import me.thosea.flowpool.leak.PoolLease;
+import me.thosea.flowpool.pushable.PoolStack;
+import me.thosea.flowpool.pushable.PoolToggle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolLeakTest {
+	List<PoolLeak> leaks = new ArrayList<>();
+
+	@AfterEach
+	void reset() {
+		PoolLeakDetector.setSamplingInterval(0);
+		PoolLeakDetector.setAutoClose(false);
+		PoolLeakDetector.setReporter(System.err::println);
+	}
+
+	@Test
+	void testLeak() throws InterruptedException {
+		PoolLeakDetector.setSamplingInterval(1);
+		PoolLeakDetector.setAutoClose(true);
+		PoolLeakDetector.setReporter(leaks::add);
+
+		PoolToggle toggle = new PoolToggle();
+		PoolStack<String> stack = new PoolStack<>();
+		stack.push(new HandlerPool(), "base");
+
+		leak(toggle, stack);
+		assertTrue(toggle.isPushed());
+		assertEquals("leaked", stack.peek());
+
+		awaitLeak();
+
+		assertEquals(1, leaks.size());
+		PoolLeak leak = leaks.get(0);
+		assertEquals(2, leak.pushedStacks());
+		assertTrue(leak.closed());
+		assertNotNull(leak.createdAt());
+		assertFalse(toggle.isPushed());
+		assertEquals("base", stack.peek());
+	}
+
+	@Test
+	void testClosed() throws InterruptedException {
+		PoolLeakDetector.setSamplingInterval(1);
+		PoolLeakDetector.setReporter(leaks::add);
+
+		PoolToggle toggle = new PoolToggle();
+		int tracked = PoolLeakDetector.getTrackedCount();
+		try(PoolLease lease = PoolLease.create()) {
+			toggle.push(lease.pool());
+			assertEquals(tracked + 1, PoolLeakDetector.getTrackedCount());
+		}
+
+		assertEquals(tracked, PoolLeakDetector.getTrackedCount());
+		assertFalse(toggle.isPushed());
+
+		System.gc();
+		Thread.sleep(10);
+		PoolLeakDetector.drain();
+		assertTrue(leaks.isEmpty());
+	}
+
+	@Test
+	void testDisabled() {
+		int tracked = PoolLeakDetector.getTrackedCount();
+		PoolLease lease = PoolLease.create();
+		assertEquals(tracked, PoolLeakDetector.getTrackedCount());
+		lease.close();
+	}
+
+	private void leak(PoolToggle toggle, PoolStack<String> stack) {
+		PoolLease lease = PoolLease.create();
+		toggle.push(lease.pool());
+		stack.push(lease.pool(), "leaked");
+	}
+
+	private void awaitLeak() throws InterruptedException {
+		for(int i = 0; i < 100 && leaks.isEmpty(); i++) {
+			System.gc();
+			Thread.sleep(10);
+			PoolLeakDetector.drain();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package me.thosea.flowpool.test;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.pushable.PoolMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolMapTest {
+	HandlerPool poolA = new HandlerPool();
+	HandlerPool poolB = new HandlerPool();
+
+	@Test
+	void testPushPop() {
+		PoolMap<String, Integer> map = new PoolMap<>();
+		List<String> popped = new ArrayList<>();
+		map.popCallback((m, key, entry) -> popped.add(key + "=" + entry.obj()));
+
+		map.push(poolA, "speed", 1);
+		map.push(poolA, "damage", 2);
+		map.push(poolA, Map.entry("armor", 3));
+		map.push(poolB, "speed", 10);
+
+		assertEquals(1, poolA.getPushedStacks().size());
+		assertEquals(10, map.get("speed"));
+		assertEquals(2, map.get("damage"));
+		assertEquals(4, map.getPushCount());
+		assertIterableEquals(List.of("speed", "damage", "armor"), map.getKeys(poolA));
+
+		map.push(poolA, "damage", 5); // replaces
+		assertEquals(5, map.get("damage"));
+		assertEquals(List.of("damage=2"), popped);
+
+		assertTrue(map.pop(poolB, "speed"));
+		assertFalse(map.pop(poolB, "speed"));
+		assertEquals(1, map.get("speed"));
+		assertFalse(poolB.isPushing(map));
+
+		popped.clear();
+		poolA.close();
+		assertEquals(List.of("speed=1", "armor=3", "damage=5"), popped);
+		assertEquals(Set.of(), map.keySet());
+		assertNull(map.get("speed"));
+		assertEquals(0, map.getPushCount());
+		assertTrue(poolA.getPushedStacks().isEmpty());
+	}
+
+	@Test
+	void testRepushWhilePopping() {
+		PoolMap<String, Integer> map = new PoolMap<>();
+		map.push(poolA, "a", 1);
+		map.push(poolA, "b", 2);
+		map.popCallback((m, key, entry) -> {
+			if(key.equals("a")) {
+				m.push(poolA, "b", 3); // b hasn't been reached by the pop yet
+			}
+		});
+
+		poolA.close();
+		assertIterableEquals(List.of("b"), map.getKeys(poolA));
+		assertTrue(poolA.isPushing(map));
+		assertEquals(3, map.get("b"));
+		assertNull(map.get("a"));
+		assertEquals(1, map.getPushCount());
+
+		map.popCallback(null);
+		poolA.close();
+		assertNull(map.get("b"));
+		assertFalse(map.isPushed());
+	}
+}
\ No newline at end of file
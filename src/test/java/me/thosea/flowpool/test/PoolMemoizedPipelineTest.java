@@ -0,0 +1,97 @@
+package me.thosea.flowpool.test;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.pipeline.SingleArgFunction;
+import me.thosea.flowpool.pushable.PoolMemoizedPipeline;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolMemoizedPipelineTest {
+	HandlerPool poolA = new HandlerPool();
+	HandlerPool poolB = new HandlerPool();
+
+	PoolMemoizedPipeline<SingleArgFunction<Integer, Integer>, Integer, Integer> pipeline = new PoolMemoizedPipeline<>(2);
+	AtomicInteger calls = new AtomicInteger();
+	SingleArgFunction<Integer, Integer> bottom = (arg, ctx) -> {
+		calls.incrementAndGet();
+		return arg;
+	};
+
+	@Test
+	void testCache() {
+		pipeline.push(poolA, (arg, ctx) -> ctx.pass().call(arg * 2, ctx));
+
+		assertEquals(6, execute(3));
+		assertEquals(6, execute(3));
+		assertEquals(1, calls.get());
+		assertEquals(1, pipeline.getHits());
+		assertEquals(1, pipeline.getMisses());
+		assertEquals(0.5, pipeline.getHitRate());
+
+		pipeline.push(poolB, (arg, ctx) -> ctx.pass().call(arg + 1, ctx));
+		assertEquals(8, execute(3));
+		assertEquals(2, calls.get());
+		assertEquals(1, pipeline.getCacheSize());
+
+		poolB.close();
+		assertEquals(6, execute(3));
+		assertEquals(3, calls.get());
+	}
+
+	@Test
+	void testEviction() {
+		execute(1);
+		execute(2);
+		execute(1); // 2 is now the least recently used
+		execute(3);
+		assertEquals(3, calls.get());
+		assertEquals(1, pipeline.getEvictions());
+		assertEquals(2, pipeline.getCacheSize());
+
+		execute(1);
+		assertEquals(3, calls.get());
+		execute(2);
+		assertEquals(4, calls.get());
+
+		pipeline.resetStats();
+		assertEquals(0, pipeline.getHits());
+		assertEquals(0, pipeline.getMisses());
+		assertEquals(0, pipeline.getEvictions());
+	}
+
+	@Test
+	void testNullResult() {
+		SingleArgFunction<Integer, Integer> nullBottom = (arg, ctx) -> {
+			calls.incrementAndGet();
+			return null;
+		};
+
+		assertNull(pipeline.executeMemoized(1, (initial, ctx) -> initial.call(1, ctx), nullBottom));
+		assertNull(pipeline.executeMemoized(1, (initial, ctx) -> initial.call(1, ctx), nullBottom));
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	void testPushWhileExecuting() {
+		pipeline.push(poolA, (arg, ctx) -> {
+			pipeline.push(poolB, (arg1, ctx1) -> ctx1.pass().call(arg1 + 1, ctx1));
+			return ctx.pass().call(arg, ctx);
+		});
+
+		assertEquals(3, execute(3)); // the push is applied after, so this isn't cached
+		assertEquals(0, pipeline.getCacheSize());
+		assertEquals(4, execute(3));
+	}
+
+	@Test
+	void testInvalidMaxSize() {
+		assertThrows(IllegalArgumentException.class, () -> new PoolMemoizedPipeline<>(0));
+	}
+
+	private Integer execute(int arg) {
+		return pipeline.executeMemoized(arg, (initial, ctx) -> initial.call(arg, ctx), bottom);
+	}
+}
\ No newline at end of file
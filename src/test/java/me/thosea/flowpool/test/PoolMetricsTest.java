@@ -0,0 +1,85 @@
+package me.thosea.flowpool.test;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.metrics.PoolMetrics;
+import me.thosea.flowpool.metrics.PoolMetricsRegistry;
+import me.thosea.flowpool.metrics.PoolMetricsRegistry.PushableStats;
+import me.thosea.flowpool.metrics.PoolRecorder;
+import me.thosea.flowpool.pipeline.IntOperator;
+import me.thosea.flowpool.pushable.PoolList;
+import me.thosea.flowpool.pushable.PoolPipeline;
+import me.thosea.flowpool.pushable.PoolToggle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class PoolMetricsTest {
+	PoolMetricsRegistry registry = new PoolMetricsRegistry();
+	HandlerPool poolA = new HandlerPool();
+	HandlerPool poolB = new HandlerPool();
+
+	@BeforeEach
+	void beforeEach() {
+		assumeTrue(PoolMetrics.ENABLED, "run with -Dflowpool.metrics=true");
+		PoolMetrics.setRecorder(registry);
+	}
+
+	@AfterEach
+	void afterEach() {
+		PoolMetrics.setRecorder(PoolRecorder.NO_OP);
+	}
+
+	@Test
+	void testCounters() {
+		PoolToggle toggle = new PoolToggle();
+		PoolList<String> list = new PoolList<>();
+		list.pushCallback((a, b) -> {});
+
+		toggle.push(poolA);
+		toggle.push(poolA); // not a push
+		toggle.push(poolB);
+		list.push(poolA, "a");
+		poolA.close();
+		poolB.close();
+
+		PushableStats toggleStats = registry.get(toggle);
+		assertEquals(2, toggleStats.getPushes());
+		assertEquals(2, toggleStats.getPops());
+		assertEquals(2, toggleStats.getMaxPushCount());
+		assertEquals(0, toggleStats.getCallbacks());
+
+		PushableStats listStats = registry.get(list);
+		assertEquals(1, listStats.getPushes());
+		assertEquals(1, listStats.getCallbacks());
+
+		assertEquals(2, registry.getCloses());
+		assertEquals(3, registry.getStacksPoppedByClose());
+
+		List<PushableStats> top = registry.top(1, PushableStats::getActivity);
+		assertEquals(1, top.size());
+		assertEquals(toggleStats.getName(), top.get(0).getName());
+	}
+
+	@Test
+	void testExecution() {
+		PoolPipeline<IntOperator, Integer> pipeline = new PoolPipeline<>();
+		pipeline.push(poolA, (arg, ctx) -> {
+			if(arg == 0) {
+				pipeline.executeInt((initial, ctx1) -> initial.call(1, ctx1), (arg1, ctx1) -> arg1);
+			}
+			return ctx.pass().call(arg, ctx);
+		});
+
+		pipeline.executeInt((initial, ctx) -> initial.call(0, ctx), (arg, ctx) -> arg);
+
+		PushableStats stats = registry.get(pipeline);
+		assertEquals(2, stats.getExecutions());
+		assertEquals(2, stats.getMaxDepth());
+		assertTrue(registry.dump(5).contains("executions=2"));
+	}
+}
\ No newline at end of file
@@ -1,11 +1,20 @@
 package me.thosea.flowpool.test;
 
 import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.pipeline.BooleanOperator;
+import me.thosea.flowpool.pipeline.IntOperator;
+import me.thosea.flowpool.pipeline.ObjDoubleOperator;
 import me.thosea.flowpool.pipeline.SingleArgFunction;
+import me.thosea.flowpool.pushable.PoolAsyncPipeline;
 import me.thosea.flowpool.pushable.PoolPipeline;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -126,4 +135,214 @@ public class PoolPipelineTest {
 		assertFalse(poolB.isPushing(stack)); // remove should be run
 		assertTrue(poolA.isPushing(stack));
 	}
+
+	@Test
+	void testModQueueOrder() {
+		SingleArgFunction<String, String> a = (param, ctx) -> ctx.pass().call(param + "a", ctx);
+		SingleArgFunction<String, String> b = (param, ctx) -> ctx.pass().call(param + "b", ctx);
+
+		stack.push(poolA, (param, ctx) -> {
+			stack.pop(poolA);
+			stack.push(poolB, b);
+			stack.pop(poolB);
+			stack.pushLast(poolB, b);
+			stack.push(poolA, a); // replaces this handler
+			assertEquals(5, stack.getQueuedModificationCount());
+			return ctx.pass().call(param, ctx);
+		});
+
+		SingleArgFunction<String, String> bottom = (param, ctx) -> param;
+		assertEquals("", stack.execute((initial, ctx) -> {
+			return initial.call("", ctx);
+		}, bottom));
+		assertEquals(0, stack.getQueuedModificationCount());
+
+		// applied in call order: poolB was pushed last (front), then poolA to the back
+		assertEquals("ab", stack.execute((initial, ctx) -> {
+			return initial.call("", ctx);
+		}, bottom));
+	}
+
+	@Test
+	void testHandlerCache() {
+		SingleArgFunction<String, String> bottom = (param, ctx) -> param;
+		stack.push(poolA, (param, ctx) -> ctx.pass().call(param + "a", ctx));
+		assertEquals("a", stack.execute((initial, ctx) -> {
+			return initial.call("", ctx);
+		}, bottom));
+
+		stack.pushLast(poolB, (param, ctx) -> ctx.pass().call(param + "b", ctx));
+		assertEquals("ab", stack.execute((initial, ctx) -> {
+			return initial.call("", ctx);
+		}, bottom));
+
+		poolA.close();
+		assertEquals("b", stack.execute((initial, ctx) -> {
+			return initial.call("", ctx);
+		}, bottom));
+
+		// editing the collection directly needs an invalidation
+		stack.getCollection().clear();
+		poolB.getPushedStacks().remove(stack);
+		stack.invalidateHandlers();
+		assertEquals("", stack.execute((initial, ctx) -> {
+			return initial.call("", ctx);
+		}, bottom));
+	}
+
+	@Test
+	void testPrimitive() {
+		PoolPipeline<IntOperator, Integer> ints = new PoolPipeline<>();
+		ints.push(poolA, (arg, ctx) -> ctx.pass().call(arg + 1, ctx));
+		ints.push(poolB, (arg, ctx) -> ctx.pass().call(arg * 2, ctx));
+
+		IntOperator bottom = (arg, ctx) -> arg;
+		assertEquals(7, ints.executeInt((initial, ctx) -> initial.call(3, ctx), bottom)); // (3 * 2) + 1
+		assertEquals(8, ints.executeReversedInt((initial, ctx) -> initial.call(3, ctx), bottom)); // (3 + 1) * 2
+
+		PoolPipeline<ObjDoubleOperator<String>, Double> doubles = new PoolPipeline<>();
+		doubles.push(poolA, (name, value, ctx) -> ctx.pass().call(name, name.equals("boss") ? value / 2 : value, ctx));
+		assertEquals(5.0, doubles.executeDouble((initial, ctx) -> initial.call("boss", 10.0, ctx), (name, value, ctx) -> value));
+
+		PoolPipeline<BooleanOperator, Boolean> booleans = new PoolPipeline<>();
+		booleans.push(poolA, (arg, ctx) -> !ctx.pass().call(arg, ctx));
+		assertTrue(booleans.executeBoolean((initial, ctx) -> initial.call(false, ctx), (arg, ctx) -> arg));
+	}
+
+	interface AsyncHandler {
+		CompletableFuture<String> call(String arg, PoolPipeline<AsyncHandler, CompletableFuture<String>>.PipelineContext ctx);
+	}
+
+	@Test
+	void testAsync() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			PoolAsyncPipeline<AsyncHandler, String> async = new PoolAsyncPipeline<>(executor);
+			CompletableFuture<Void> gate = new CompletableFuture<>();
+
+			async.push(poolA, (arg, ctx) -> {
+				// suspend mid-chain, then continue on the executor
+				return gate.thenCompose(ignored -> async.passAsync(ctx, (next, ctx1) -> next.call(arg + "a", ctx1)));
+			});
+
+			AsyncHandler bottom = (arg, ctx) -> CompletableFuture.completedFuture(arg + "!");
+			CompletableFuture<String> result = async.executeAsync((initial, ctx) -> initial.call("", ctx), bottom);
+
+			// not part of the running execution
+			async.push(poolB, (arg, ctx) -> ctx.pass().call(arg + "b", ctx));
+			assertEquals(0, async.getQueuedModificationCount());
+
+			gate.complete(null);
+			assertEquals("a!", result.get(5, TimeUnit.SECONDS));
+
+			assertEquals("ba!", async.executeAsync((initial, ctx) -> initial.call("", ctx), bottom).get(5, TimeUnit.SECONDS));
+			assertEquals("ab!", async.executeReversedAsync((initial, ctx) -> initial.call("", ctx), bottom).get(5, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testPriority() {
+		HandlerPool poolC = new HandlerPool();
+		SingleArgFunction<String, String> bottom = (param, ctx) -> param;
+
+		stack.push(poolA, (param, ctx) -> ctx.pass().call(param + "a", ctx), 5);
+		stack.push(poolB, (param, ctx) -> ctx.pass().call(param + "b", ctx), 0);
+		stack.push(poolC, (param, ctx) -> ctx.pass().call(param + "c", ctx), -1);
+		assertEquals("abc", stack.execute((initial, ctx) -> {
+			return initial.call("", ctx);
+		}, bottom));
+		assertEquals(5, stack.getPriority(poolA));
+
+		// queued during execution, applied with its priority afterwards
+		stack.execute((initial, ctx) -> {
+			stack.push(poolB, (param, ctx1) -> ctx1.pass().call(param + "B", ctx1), 10);
+			return initial.call("", ctx);
+		}, bottom);
+		assertEquals("Bac", stack.execute((initial, ctx) -> {
+			return initial.call("", ctx);
+		}, bottom));
+
+		poolB.close();
+		assertEquals(0, stack.getPriority(poolB));
+		assertEquals("ac", stack.execute((initial, ctx) -> {
+			return initial.call("", ctx);
+		}, bottom));
+	}
+
+	@Test
+	void testPriorityPushCallback() {
+		HandlerPool poolC = new HandlerPool();
+		SingleArgFunction<String, String> bottom = (param, ctx) -> param;
+		SingleArgFunction<String, String> c = (param, ctx) -> ctx.pass().call(param + "c", ctx);
+
+		stack.push(poolA, (param, ctx) -> ctx.pass().call(param + "a", ctx), 1);
+		stack.pushCallback((pipeline, entry) -> {
+			if(entry.pool() == poolB) {
+				pipeline.push(poolC, c); // plain push, shouldn't use the priority of poolB
+			}
+		});
+		stack.push(poolB, (param, ctx) -> ctx.pass().call(param + "b", ctx), 5);
+		stack.pushCallback(null);
+
+		assertEquals(5, stack.getPriority(poolB));
+		assertEquals(0, stack.getPriority(poolC));
+		assertEquals("cba", stack.execute((initial, ctx) -> {
+			return initial.call("", ctx);
+		}, bottom));
+	}
+
+	@Test
+	void testBatch() {
+		stack.push(poolA, (param, ctx) -> ctx.pass().call(param + "a", ctx));
+		stack.push(poolB, (param, ctx) -> {
+			if(param.equals("x")) {
+				poolB.close(); // queued until the batch finishes
+			}
+			return ctx.pass().call(param + "b", ctx);
+		});
+
+		SingleArgFunction<String, String> bottom = (param, ctx) -> param + "!";
+		String[] inputs = {"x", "y", "z"};
+		String[] outputs = new String[3];
+		stack.executeBatch(inputs, outputs, (initial, input, ctx) -> initial.call(input, ctx), bottom);
+		assertArrayEquals(new String[] {"xba!", "yba!", "zba!"}, outputs);
+		assertEquals(0, stack.getQueuedModificationCount());
+		assertEquals(1, stack.getPushCount());
+
+		stack.push(poolB, (param, ctx) -> ctx.pass().call(param + "b", ctx));
+		stack.executeBatchReversed(inputs, outputs, (initial, input, ctx) -> initial.call(input, ctx), bottom);
+		assertArrayEquals(new String[] {"xab!", "yab!", "zab!"}, outputs);
+
+		assertEquals(List.of("xba!", "yba!"),
+				stack.executeBatch(List.of("x", "y"), (initial, input, ctx) -> initial.call(input, ctx), bottom));
+		assertEquals(List.of("xab!", "yab!"),
+				stack.executeBatchReversed(List.of("x", "y"), (initial, input, ctx) -> initial.call(input, ctx), bottom));
+
+		assertThrows(IllegalArgumentException.class, () -> stack.executeBatch(inputs, new String[2],
+				(initial, input, ctx) -> initial.call(input, ctx), bottom));
+	}
+
+	@Test
+	void testBatchParallel() {
+		stack.push(poolA, (param, ctx) -> ctx.pass().call(param + "a", ctx));
+		stack.push(poolB, (param, ctx) -> ctx.pass().call(param + "b", ctx));
+
+		String[] inputs = new String[1000];
+		for(int i = 0; i < inputs.length; i++) {
+			inputs[i] = String.valueOf(i);
+		}
+
+		String[] outputs = new String[inputs.length];
+		stack.executeBatchParallel(inputs, outputs, (initial, input, ctx) -> initial.call(input, ctx),
+				(param, ctx) -> param + "!", 16);
+		for(int i = 0; i < inputs.length; i++) {
+			assertEquals(i + "ba!", outputs[i]);
+		}
+		assertEquals(0, stack.getDepth());
+
+		assertThrows(IllegalArgumentException.class, () -> stack.executeBatchParallel(inputs, outputs,
+				(initial, input, ctx) -> initial.call(input, ctx), (param, ctx) -> param, 0));
+	}
 }
\ No newline at end of file
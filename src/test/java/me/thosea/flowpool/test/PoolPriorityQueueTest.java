@@ -0,0 +1,102 @@
+package me.thosea.flowpool.test;
+
+import me.thosea.flowpool.HandlerPool;
+import me.thosea.flowpool.PoolEntry;
+import me.thosea.flowpool.PoolJournal;
+import me.thosea.flowpool.pushable.PoolPriorityQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolPriorityQueueTest {
+	HandlerPool poolA = new HandlerPool();
+	HandlerPool poolB = new HandlerPool();
+	HandlerPool poolC = new HandlerPool();
+
+	@Test
+	void testOrder() {
+		PoolPriorityQueue<String> queue = new PoolPriorityQueue<>();
+		assertNull(queue.peek());
+
+		queue.push(poolA, "low", -1);
+		queue.push(poolB, "high", 5);
+		queue.push(poolC, "normal");
+		assertEquals("high", queue.peek());
+		assertIterableEquals(List.of("high", "normal", "low"), queue.getEntries());
+		assertEquals(5, queue.getPriority(poolB));
+
+		queue.push(poolA, "higher", 10); // replaces poolA's entry
+		assertEquals("higher", queue.peek());
+		assertIterableEquals(List.of("higher", "high", "normal"), queue.getEntries());
+
+		poolA.close();
+		assertEquals("high", queue.peek());
+		assertEquals("high", queue.getPushEntry(poolB).obj());
+		assertNull(queue.getPushEntry(poolA));
+		assertEquals(0, queue.getPriority(poolA));
+	}
+
+	@Test
+	void testComparator() {
+		PoolPriorityQueue<String> queue = new PoolPriorityQueue<>(Comparator.naturalOrder());
+		queue.push(poolA, "b");
+		queue.push(poolB, "a");
+		queue.push(poolC, "c");
+		assertIterableEquals(List.of("a", "b", "c"), queue.getEntries());
+
+		queue.push(poolC, "c", 1); // priority first, then the comparator
+		assertIterableEquals(List.of("c", "a", "b"), queue.getEntries());
+	}
+
+	@Test
+	void testRandom() {
+		Random random = new Random(42);
+		PoolPriorityQueue<Integer> queue = new PoolPriorityQueue<>();
+		List<HandlerPool> pools = new ArrayList<>();
+		for(int i = 0; i < 64; i++) {
+			pools.add(new HandlerPool());
+		}
+
+		for(int i = 0; i < 5000; i++) {
+			HandlerPool pool = pools.get(random.nextInt(pools.size()));
+			if(random.nextInt(3) == 0) {
+				queue.pop(pool);
+			} else {
+				int priority = random.nextInt(20);
+				queue.push(pool, priority, priority);
+			}
+
+			int max = Integer.MIN_VALUE;
+			for(PoolEntry<Integer> entry : queue.getCollection()) {
+				assertTrue(entry.obj() <= (max == Integer.MIN_VALUE ? Integer.MAX_VALUE : max));
+				max = entry.obj();
+			}
+
+			Integer top = queue.getCollection().isEmpty() ? null : queue.getCollection().get(0).obj();
+			assertEquals(top, queue.peek());
+		}
+	}
+
+	@Test
+	void testRollbackKeepsTies() {
+		PoolPriorityQueue<String> queue = new PoolPriorityQueue<>();
+		queue.push(poolA, "a", 1);
+		queue.push(poolB, "b", 1);
+		queue.push(poolC, "c", 1);
+		assertIterableEquals(List.of("c", "b", "a"), queue.getEntries());
+
+		PoolJournal journal = new PoolJournal();
+		journal.run(() -> {
+			poolA.close();
+			poolC.close();
+		});
+		journal.rollback();
+		assertIterableEquals(List.of("c", "b", "a"), queue.getEntries());
+		assertEquals(1, queue.getPriority(poolA));
+	}
+}
\ No newline at end of file